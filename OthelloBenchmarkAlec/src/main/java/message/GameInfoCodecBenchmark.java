@@ -0,0 +1,88 @@
+package message;
+
+import common.User;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import othello.model.BenchmarkGames;
+import server.StateMapper;
+
+/**
+ * Author: Alec Waumans (2025)
+ * The serialization of a {@link MessageGameInfo}, with the two protocols of
+ * the connections: Java serialization, on a stream reset before each message
+ * as the connections do, and the frames of {@link BinaryCodec}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameInfoCodecBenchmark {
+
+    @Param({"4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15"})
+    public int size;
+
+    @Param
+    public BenchmarkGames.Phase phase;
+
+    private MessageGameInfo message;
+    private ByteArrayOutputStream buffer;
+    private ObjectOutputStream output;
+    private byte[] serialized;
+    private byte[] frame;
+
+    @Setup
+    public void setUp() throws IOException {
+        User player = new User(1, "player");
+        message = new MessageGameInfo(User.ADMIN, player,
+                StateMapper.toGameInfo(BenchmarkGames.play(size, phase).getCurrentState(), 1));
+        buffer = new ByteArrayOutputStream(4096);
+        output = new ObjectOutputStream(buffer);
+        output.writeObject(message);
+        output.flush();
+        serialized = buffer.toByteArray();
+        frame = BinaryCodec.encode(message);
+    }
+
+    @Benchmark
+    public int javaWrite() throws IOException {
+        buffer.reset();
+        output.reset();
+        output.writeObject(message);
+        output.flush();
+        return buffer.size();
+    }
+
+    @Benchmark
+    public Object javaRead() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return input.readObject();
+        }
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() throws IOException {
+        return BinaryCodec.encode(message);
+    }
+
+    @Benchmark
+    public Object binaryDecode() throws IOException, ClassNotFoundException {
+        return BinaryCodec.decode(frame, 0, frame.length);
+    }
+}
@@ -0,0 +1,91 @@
+package othello.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Author: Alec Waumans (2025)
+ * The positions the benchmarks start from: for a board size and a phase of
+ * the game, the same random game is played every time, so that two runs
+ * measure the same positions.
+ */
+public final class BenchmarkGames {
+
+    /**
+     * A phase of the game, as the part of the empty squares already played.
+     */
+    public enum Phase {
+        OPENING(0.15), MIDGAME(0.5), ENDGAME(0.85);
+
+        private final double played;
+
+        Phase(double played) {
+            this.played = played;
+        }
+
+        /**
+         * @param size The size of the board.
+         * @return the number of moves of the phase, at least one.
+         */
+        int moves(int size) {
+            return Math.max(1, (int) Math.round(played * (size * size - 4)));
+        }
+    }
+
+    // Games tried before keeping the longest one.
+    private static final int ATTEMPTS = 10_000;
+
+    private BenchmarkGames() {
+    }
+
+    /**
+     * Plays the game of a phase.
+     *
+     * @param size The size of the board.
+     * @param phase The phase of the game.
+     * @return the game, running, with a move for its current player.
+     */
+    public static Game play(int size, Phase phase) {
+        Game game = new Game(size);
+        for (Position move : moves(size, phase)) {
+            game.addPiece(move, false);
+        }
+        return game;
+    }
+
+    /**
+     * Finds the moves of a phase: the first random game, from a fixed seed,
+     * still running after the moves of the phase, or the longest one.
+     *
+     * @param size The size of the board.
+     * @param phase The phase of the game.
+     * @return the moves, in order.
+     */
+    public static List<Position> moves(int size, Phase phase) {
+        int wanted = phase.moves(size);
+        List<Position> longest = new ArrayList<>();
+        for (int seed = 0; seed < ATTEMPTS; seed++) {
+            Random random = new Random(31L * size + seed);
+            Game game = new Game(size);
+            List<Position> moves = new ArrayList<>();
+            // a move is played only if one is left for the next player
+            while (moves.size() < wanted) {
+                List<Position> possible = game.getCurrentState().getPossibleMove();
+                Position move = possible.get(random.nextInt(possible.size()));
+                game.addPiece(move, false);
+                if (game.getGameState() != GameState.RUNNING) {
+                    break;
+                }
+                moves.add(move);
+            }
+            if (moves.size() == wanted) {
+                return moves;
+            }
+            if (moves.size() > longest.size()) {
+                longest = moves;
+            }
+        }
+        return longest;
+    }
+}
@@ -0,0 +1,85 @@
+package othello.model;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Author: Alec Waumans (2025)
+ * The moves of the {@link Board}: searching the possible moves, and playing
+ * one. In this package, since these methods are not public.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+
+    @Param({"4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15"})
+    public int size;
+
+    @Param
+    public BenchmarkGames.Phase phase;
+
+    private Board board;
+    private ColorToken color;
+    private Position move;
+    private int square;
+    private long[] flips;
+
+    @Setup
+    public void setUp() {
+        Game game = BenchmarkGames.play(size, phase);
+        board = game.copyBoard();
+        color = game.getCurrentPlayer();
+        board.searchPossibleMove(color);
+        move = board.getMovePossible().get(0);
+        square = board.toSquare(move);
+        flips = new long[board.getWords()];
+    }
+
+    /**
+     * The possible moves of the player, as the game searches them after each
+     * move.
+     */
+    @Benchmark
+    public void searchPossibleMove() {
+        board.searchPossibleMove(color);
+    }
+
+    /**
+     * The possible moves of the player, then their list, as the game keeps it.
+     */
+    @Benchmark
+    public ArrayList<Position> searchAndListPossibleMoves() {
+        board.searchPossibleMove(color);
+        return board.getMovePossible();
+    }
+
+    /**
+     * A move played as the game plays it, then taken back as an undo does, so
+     * that the next call starts from the same position: the cost of both,
+     * each keeping the possible moves up to date. The moves being up to date,
+     * searching them again only publishes those of the player, without a
+     * rescan; it makes the move possible again for the next call.
+     */
+    @Benchmark
+    public ArrayList<Position> addAndUndo() {
+        ArrayList<Position> takeOver = board.add(move, color, flips);
+        board.remove(square, color, flips);
+        board.searchPossibleMove(color);
+        return takeOver;
+    }
+}
@@ -0,0 +1,61 @@
+package othello.model;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Author: Alec Waumans (2025)
+ * The moves of a {@link Game}, with its history: playing, undoing and
+ * redoing. Each call leaves the game as it found it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+
+    @Param({"4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15"})
+    public int size;
+
+    @Param
+    public BenchmarkGames.Phase phase;
+
+    private Game game;
+    private Position move;
+
+    @Setup
+    public void setUp() {
+        game = BenchmarkGames.play(size, phase);
+        move = game.getCurrentState().getPossibleMove().get(0);
+    }
+
+    /**
+     * A move, then its undo.
+     */
+    @Benchmark
+    public void addPiece() {
+        game.addPiece(move, false);
+        game.undoGame();
+    }
+
+    /**
+     * The last move undone, then redone.
+     */
+    @Benchmark
+    public void undoRedo() {
+        game.undoGame();
+        game.redoGame();
+    }
+}
@@ -0,0 +1,48 @@
+package server;
+
+import common.GameInfo;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import othello.model.BenchmarkGames;
+
+/**
+ * Author: Alec Waumans (2025)
+ * The mapping of a state of the game to the {@link GameInfo} sent to the
+ * clients (see {@link StateMapper}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateMapperBenchmark {
+
+    @Param({"4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15"})
+    public int size;
+
+    @Param
+    public BenchmarkGames.Phase phase;
+
+    private othello.model.State state;
+
+    @Setup
+    public void setUp() {
+        state = BenchmarkGames.play(size, phase).getCurrentState();
+    }
+
+    @Benchmark
+    public GameInfo toGameInfo() {
+        return StateMapper.toGameInfo(state, 1);
+    }
+}
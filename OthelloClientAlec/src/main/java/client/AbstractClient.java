@@ -6,6 +6,7 @@ package client;
 import java.io.*;
 import java.net.*;
 import java.util.Observable;
+import message.BinaryCodec;
 
 /**
  * The <code> AbstractClient </code> contains all the methods necessary to set
@@ -27,6 +28,11 @@ import java.util.Observable;
  * @author Fran&ccedil;ois B&eacutel;langer
  * @author Paul Holden
  * @version December 2003 (2.31)
+ *
+ * Alec : with -Dothello.protocol=binary, the client first asks the server for
+ * the binary protocol of {@link BinaryCodec}, and uses Java serialization if
+ * the server refuses it. Without it, Java serialization, which every server
+ * reads.
  */
 public abstract class AbstractClient extends Observable implements Runnable {
 
@@ -48,6 +54,12 @@ public abstract class AbstractClient extends Observable implements Runnable {
      */
     private ObjectInputStream input;
 
+    /**
+     * Alec : the streams of the binary protocol, null with Java serialization.
+     */
+    private OutputStream frameOutput;
+    private DataInputStream frameInput;
+
     /**
      * The thread created to read data from the server.
      */
@@ -101,6 +113,8 @@ public abstract class AbstractClient extends Observable implements Runnable {
         } finally {
             output = null;
             input = null;
+            frameOutput = null;
+            frameInput = null;
             clientSocket = null;
         }
     }
@@ -218,8 +232,13 @@ public abstract class AbstractClient extends Observable implements Runnable {
 
         try {
             clientSocket = new Socket(host, port);
-            output = new ObjectOutputStream(clientSocket.getOutputStream());
-            input = new ObjectInputStream(clientSocket.getInputStream());
+            // Alec : Java serialization unless the binary protocol is asked for
+            // and accepted
+            if (!BinaryCodec.isOffered() || !openBinary()) {
+                output = new ObjectOutputStream(clientSocket.getOutputStream());
+                input = new ObjectInputStream(clientSocket.getInputStream());
+            }
+            // End Alec
         } catch (IOException ex) {
             try {
                 closeAll();
@@ -234,17 +253,51 @@ public abstract class AbstractClient extends Observable implements Runnable {
         clientReader.start();
     }
 
+    /**
+     * @author : Alec Waumans (2025)
+     * Asks the server for the binary protocol. If it refuses, or does not
+     * know it, the socket is replaced by a new connection.
+     *
+     * @return true if the binary protocol is used.
+     * @exception IOException if the new connection cannot be opened.
+     */
+    private boolean openBinary() throws IOException {
+        try {
+            OutputStream out = new BufferedOutputStream(clientSocket.getOutputStream());
+            out.write(BinaryCodec.hello(BinaryCodec.VERSION));
+            out.flush();
+            InputStream in = new BufferedInputStream(clientSocket.getInputStream());
+            if (BinaryCodec.readHello(in) > 0) {
+                frameOutput = out;
+                frameInput = new DataInputStream(in);
+                return true;
+            }
+        } catch (IOException e) {
+            // an older server closes the connection: try again without
+        }
+        clientSocket.close();
+        clientSocket = new Socket(host, port);
+        return false;
+    }
+
     /**
      * Sends an object to the server. This is the only way that methods should
      * communicate with the server. This method can be overriden, but if so it
      * should still perform the general function of sending to server, by
      * calling the <code>super.sendToServer()</code> method perhaps after some
-     * kind of filtering is done.
+     * kind of filtering is done. Alec : synchronized, since the thread of the
+     * view and the thread reading the server (asking for a resync) both send.
      *
      * @param msg The message to be sent.
      * @exception IOException if an I/O error occurs when sending
      */
-    public void sendToServer(Object msg) throws IOException {
+    public synchronized void sendToServer(Object msg) throws IOException {
+        OutputStream frames = frameOutput;
+        if (frames != null) {
+            frames.write(BinaryCodec.encode(msg));
+            frames.flush();
+            return;
+        }
         if (clientSocket == null || output == null) {
             throw new SocketException("socket does not exist");
         }
@@ -268,7 +321,9 @@ public abstract class AbstractClient extends Observable implements Runnable {
                 // The thread waits indefinitely at the following
                 // statement until something is received from the server
                 try {
-                    msg = input.readObject();
+                    msg = frameInput != null
+                            ? BinaryCodec.read(frameInput)
+                            : input.readObject();
                     // Concrete subclasses do what they want with the
                     // msg by implementing the following method
                     if (!readyToStop) {
@@ -2,6 +2,7 @@ package client.controller;
 
 import client.model.OthelloClient;
 import common.Config;
+import common.GameDelta;
 import common.GameInfo;
 import common.PositionDTO;
 import common.User;
@@ -184,6 +185,19 @@ public class ClientJavaFx {
         }
     }
 
+    /**
+     * Forwards a game state built from a delta to the view, which only repaints
+     * the squares that changed.
+     *
+     * @param info  the latest game state, the delta applied
+     * @param delta the changes since the previous state
+     */
+    public void updateBoard(GameInfo info, GameDelta delta) {
+        if (view != null) {
+            view.updateBoard(info, delta);
+        }
+    }
+
     /**
      * Requests a graceful disconnect: notify the server and close the client.
      *
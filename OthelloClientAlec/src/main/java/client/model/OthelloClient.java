@@ -4,9 +4,14 @@ import common.Members;
 import common.User;
 import client.AbstractClient;
 import client.controller.ClientJavaFx;
+import common.GameDelta;
 import common.GameInfo;
+import common.MembersDelta;
 import message.Message;
+import message.MessageMembers;
+import message.MessageReplay;
 import message.MessageProfile;
+import message.MessageResync;
 import message.Type;
 import java.io.IOException;
 
@@ -29,6 +34,12 @@ public class OthelloClient extends AbstractClient {
     private User mySelf;
     private boolean isConnectedSuccessfully = false; // Add by Alec
     private ClientJavaFx controller; // Add by Alec
+    // Alec : last state of the game, to which the deltas apply
+    private GameInfo gameInfo;
+    private boolean resyncing;
+    // Alec : number of the list of members, to which the member deltas apply (-1 before the first list)
+    private int membersVersion = -1;
+    private boolean membersResyncing;
     // Alec : Like this i separate the view from the client. 
 
     /**
@@ -44,9 +55,12 @@ public class OthelloClient extends AbstractClient {
      */
     public OthelloClient(String host, int port, String name, String password) throws IOException {
         super(host, port);
+        // Alec : the list must exist before the server sends it, as soon as connected
+        members = new Members();
         openConnection();
+        // Alec : asking for the list tells the server this client applies the member deltas
+        requestMembers();
         updateName(name);
-        members = new Members();
     }
 
     /**
@@ -80,16 +94,48 @@ public class OthelloClient extends AbstractClient {
                 System.out.println("Number of possible moves: " + info.getPossibleMoves().size());
                 System.out.println("---------------------------");
 
+                gameInfo = info;
+                resyncing = false;
                 if (controller != null) {
                     controller.updateBoard(info);
                 }
                 break;
             }
+            // Alec : the changes since the previous state; if one was missed,
+            // ask for the complete state and wait for it
+            case GAMEDELTA -> {
+                GameDelta delta = (GameDelta) message.getContent();
+                if (!delta.follows(gameInfo)) {
+                    requestResync();
+                    break;
+                }
+                gameInfo = delta.applyTo(gameInfo);
+                if (controller != null) {
+                    controller.updateBoard(gameInfo, delta);
+                }
+                break;
+            }
             // End Alec
             // NOT CHANGED
             case MEMBERS -> {
                 Members members = (Members) message.getContent();
                 updateMembers(members);
+                // Alec : the deltas that follow apply to this list
+                membersVersion = ((MessageMembers) message).getVersion();
+                membersResyncing = false;
+                break;
+            }
+            // Alec : the users who joined or left; if a change was missed,
+            // ask for the whole list. Deltas older than the list are ignored.
+            case MEMBERSDELTA -> {
+                MembersDelta delta = (MembersDelta) message.getContent();
+                if (delta.getFromVersion() == membersVersion) {
+                    delta.applyTo(members);
+                    membersVersion = delta.getToVersion();
+                    notifyChange();
+                } else if (membersVersion >= 0 && delta.getToVersion() > membersVersion) {
+                    requestMembers();
+                }
                 break;
             }
             //58399 Alec 
@@ -111,6 +157,50 @@ public class OthelloClient extends AbstractClient {
         this.controller = controller;
     }
 
+    /**
+     * @author : Alec Waumans (2025)
+     * Asks the server for the complete state of the game, once until it comes.
+     */
+    private void requestResync() {
+        if (resyncing) {
+            return;
+        }
+        resyncing = true;
+        try {
+            sendToServer(new MessageResync(getMySelf()));
+        } catch (IOException e) {
+            System.err.println("Error while sending RESYNC message: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * Asks the server for a saved game, played again from its move log. The
+     * position reached comes back as a GAMEINFO message, shown on the board.
+     *
+     * @param gameId the ID of the game.
+     * @throws IOException if the request cannot be sent.
+     */
+    public void requestReplay(int gameId) throws IOException {
+        sendToServer(new MessageReplay(getMySelf(), gameId));
+    }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * Asks the server for the whole list of members, once until it arrives.
+     */
+    private void requestMembers() {
+        if (membersResyncing) {
+            return;
+        }
+        membersResyncing = true;
+        try {
+            sendToServer(new MessageMembers(new Members()));
+        } catch (IOException e) {
+            System.err.println("Error while sending MEMBERS message: " + e.getMessage());
+        }
+    }
+
     /**
      * Quits the client and closes all aspects of the connection to the server.
      *
@@ -1,5 +1,6 @@
 package othello.view.javaFx;
 
+import common.GameDelta;
 import common.GameInfo;
 import common.PositionDTO;
 import javafx.geometry.HPos;
@@ -7,6 +8,7 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.geometry.VPos;
 import javafx.scene.layout.*;
+import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
 import javafx.scene.shape.Rectangle;
 
@@ -97,6 +99,59 @@ public class BoardPane extends GridPane {
         }
     }
 
+    /**
+     * @author : Alec Waumans (2025)
+     * Updates the board with the changes of a delta while the game runs, and
+     * like {@link #modify(GameInfo)} otherwise.
+     *
+     * @param gameInfo The state of the game, the delta applied.
+     * @param delta The changes since the previous state.
+     */
+    void modify(GameInfo gameInfo, GameDelta delta) {
+        if (gameInfo.getStatus() != GameInfo.GameStatus.RUNNING) {
+            modify(gameInfo);
+            return;
+        }
+        applyDelta(delta);
+    }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * Repaints only the squares of a delta and the possible moves, old and
+     * new, instead of the whole board.
+     *
+     * @param delta The changes since the previous state.
+     */
+    private void applyDelta(GameDelta delta) {
+        for (PositionDTO p : previousPossibleMove) {
+            paint(p, ConstantsView.colorGrid, ConstantsView.colorGrid);
+        }
+        for (PositionDTO p : delta.getEmptied()) {
+            paint(p, ConstantsView.colorGrid, ConstantsView.colorGrid);
+        }
+        for (PositionDTO p : delta.getBlackTokens()) {
+            paint(p, ConstantsView.colorPlayer1, ConstantsView.colorGrid);
+        }
+        for (PositionDTO p : delta.getWhiteTokens()) {
+            paint(p, ConstantsView.colorPlayer2, ConstantsView.colorGrid);
+        }
+        List<PositionDTO> possibleMoves = delta.getPossibleMoves();
+        for (PositionDTO p : possibleMoves) {
+            switch (delta.getNextColor()) {
+                case "BLACK" ->
+                    paint(p, ConstantsView.colorGrid, ConstantsView.colorPlayer1);
+                case "WHITE" ->
+                    paint(p, ConstantsView.colorGrid, ConstantsView.colorPlayer2);
+            }
+        }
+        previousPossibleMove = possibleMoves;
+    }
+
+    private void paint(PositionDTO p, Color fill, Color stroke) {
+        circles[p.getRow()][p.getCol()].setFill(fill);
+        circles[p.getRow()][p.getCol()].setStroke(stroke);
+    }
+
     /**
      * @author : Sami EL YAGHMOURI (2024) & Alec Waumans (2025)
      *
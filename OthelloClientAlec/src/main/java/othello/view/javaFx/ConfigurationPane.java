@@ -119,7 +119,8 @@ public class ConfigurationPane extends VBox {
         // to send an init message to the server when the game starts.
         boolean cpu = controller.isCpu();
         boolean smart = controller.isSmartCpu();
-        Config config = new Config(size, cpu, smart);
+        // the client applies the deltas of the game state (see OthelloClient)
+        Config config = new Config(size, cpu, smart, 0, true);
         controller.sendInit(config);
         // End Alec
     }
@@ -1,6 +1,7 @@
 package othello.view.javaFx;
 
 import client.controller.ClientJavaFx;
+import common.GameDelta;
 import common.GameInfo;
 import common.PositionDTO;
 import java.util.List;
@@ -120,4 +121,19 @@ public class MainPane extends VBox {
             this.scorePane.update(info);
         });
     }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * this function is calling by the client when the server sent only the
+     * changes of the game.
+     * @param info of the actual state of the game.
+     * @param delta the changes since the previous state.
+     */
+    public void updateBoard(GameInfo info, GameDelta delta) {
+        Platform.runLater(() -> {
+            this.possibleMoves = info.getPossibleMoves();
+            this.boardPane.modify(info, delta);
+            this.scorePane.update(info);
+        });
+    }
 }
@@ -5,7 +5,9 @@ import java.io.Serializable;
 /**
  * Author: Alec Waumans (2025)
  * Configuration object for an Othello game session.
- * Contains board size, CPU mode flag, and smart CPU strategy flag.
+ * Contains board size, CPU mode flag, smart CPU strategy flag, the number
+ * of threads the smart CPU may use and whether the client applies
+ * {@link GameDelta} updates.
  * This object is serializable so it can be transferred between the client and server.
  *
  */
@@ -23,6 +25,12 @@ public class Config implements Serializable {
     /** Whether the CPU should use the "smart" strategy. */
     private final boolean smartCPU;
 
+    /** Threads searching each smart CPU move; 0 lets the server decide. */
+    private final int cpuThreads;
+
+    /** Whether the client applies {@link GameDelta} updates instead of full snapshots only. */
+    private final boolean deltaUpdates;
+
     /**
      * Constructs a new configuration object for the game.
      *
@@ -31,9 +39,37 @@ public class Config implements Serializable {
      * @param smartCPU  true if the CPU uses the smart strategy
      */
     public Config(int boardSize, boolean cpuMode, boolean smartCPU) {
+        this(boardSize, cpuMode, smartCPU, 0);
+    }
+
+    /**
+     * Constructs a new configuration object for the game.
+     *
+     * @param boardSize  the size of the game board
+     * @param cpuMode    true if the game is against a CPU
+     * @param smartCPU   true if the CPU uses the smart strategy
+     * @param cpuThreads threads searching each smart CPU move, 0 for the server default
+     */
+    public Config(int boardSize, boolean cpuMode, boolean smartCPU, int cpuThreads) {
+        this(boardSize, cpuMode, smartCPU, cpuThreads, false);
+    }
+
+    /**
+     * Constructs a new configuration object for the game.
+     *
+     * @param boardSize    the size of the game board
+     * @param cpuMode      true if the game is against a CPU
+     * @param smartCPU     true if the CPU uses the smart strategy
+     * @param cpuThreads   threads searching each smart CPU move, 0 for the server default
+     * @param deltaUpdates true if the client applies {@link GameDelta} updates
+     */
+    public Config(int boardSize, boolean cpuMode, boolean smartCPU, int cpuThreads,
+            boolean deltaUpdates) {
         this.boardSize = boardSize;
         this.cpuMode = cpuMode;
         this.smartCPU = smartCPU;
+        this.cpuThreads = cpuThreads;
+        this.deltaUpdates = deltaUpdates;
     }
 
     /** @return the board size */
@@ -51,6 +87,16 @@ public class Config implements Serializable {
         return smartCPU;
     }
 
+    /** @return the threads searching each smart CPU move, 0 for the server default */
+    public int getCpuThreads() {
+        return cpuThreads;
+    }
+
+    /** @return true if the client applies {@link GameDelta} updates */
+    public boolean isDeltaUpdates() {
+        return deltaUpdates;
+    }
+
     /**
      * Returns a string representation of the configuration.
      * Useful for debugging and logging.
@@ -61,6 +107,8 @@ public class Config implements Serializable {
                 "boardSize=" + boardSize +
                 ", cpuMode=" + cpuMode +
                 ", smartCPU=" + smartCPU +
+                ", cpuThreads=" + cpuThreads +
+                ", deltaUpdates=" + deltaUpdates +
                 '}';
     }
 }
@@ -0,0 +1,191 @@
+package common;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Author: Alec Waumans (2025)
+ * Changes of the game state since the previous update, sent instead of a
+ * complete {@link GameInfo} when the client supports it.
+ *
+ * <p>A delta lists the squares whose content changed: the squares now black,
+ * the squares now white (the token placed and the flipped ones, or the tokens
+ * given back by a redo) and the squares now empty (after an undo). The
+ * possible moves are a bitmap of the board: they change almost all at each
+ * turn, so a list of their changes would not be smaller. The score, the next
+ * color and the status are sent whole, they are small.
+ *
+ * <p>The updates of a game are numbered: a delta applies to the state with the
+ * previous number only. A client that misses one asks for a complete state
+ * again (see {@link message.Type#RESYNC}).
+ */
+public class GameDelta implements Serializable {
+
+    /** Serialization identifier for network transmission. */
+    private static final long serialVersionUID = 2L;
+
+    /** Number of the update in the game. */
+    private final int sequence;
+
+    /** Squares that became black. */
+    private final List<PositionDTO> blackTokens;
+
+    /** Squares that became white. */
+    private final List<PositionDTO> whiteTokens;
+
+    /** Squares that became empty. */
+    private final List<PositionDTO> emptied;
+
+    /** Number of rows and columns of the board. */
+    private final int side;
+
+    /**
+     * Possible moves for the next player: the square {@code row * side + col}
+     * is the bit {@code square % 64} of the long {@code square / 64}.
+     */
+    private final long[] possibleMoves;
+
+    /** Current score: index 0 for black, index 1 for white. */
+    private final int[] score;
+
+    /** Color of the next player to move ("BLACK" or "WHITE"). */
+    private final String nextColor;
+
+    /** Current status of the game. */
+    private final GameInfo.GameStatus status;
+
+    /**
+     * Constructs a delta.
+     *
+     * @param sequence      the number of the update in the game
+     * @param blackTokens   the squares that became black
+     * @param whiteTokens   the squares that became white
+     * @param emptied       the squares that became empty
+     * @param side          the number of rows and columns of the board
+     * @param possibleMoves the valid moves for the next player, as a bitmap
+     * @param score         the current score, index 0 = black, index 1 = white
+     * @param nextColor     the color of the next player ("BLACK" or "WHITE")
+     * @param status        the current status of the game
+     */
+    public GameDelta(int sequence,
+                     List<PositionDTO> blackTokens,
+                     List<PositionDTO> whiteTokens,
+                     List<PositionDTO> emptied,
+                     int side,
+                     long[] possibleMoves,
+                     int[] score,
+                     String nextColor,
+                     GameInfo.GameStatus status) {
+        this.sequence = sequence;
+        this.blackTokens = blackTokens;
+        this.whiteTokens = whiteTokens;
+        this.emptied = emptied;
+        this.side = side;
+        this.possibleMoves = possibleMoves;
+        this.score = score;
+        this.nextColor = nextColor;
+        this.status = status;
+    }
+
+    /** @return number of the update in the game */
+    public int getSequence() {
+        return sequence;
+    }
+
+    /** @return squares that became black */
+    public List<PositionDTO> getBlackTokens() {
+        return blackTokens;
+    }
+
+    /** @return squares that became white */
+    public List<PositionDTO> getWhiteTokens() {
+        return whiteTokens;
+    }
+
+    /** @return squares that became empty */
+    public List<PositionDTO> getEmptied() {
+        return emptied;
+    }
+
+    /** @return number of rows and columns of the board */
+    public int getSide() {
+        return side;
+    }
+
+    /** @return possible moves for the next player, as a bitmap */
+    public long[] getPossibleMoveBits() {
+        return possibleMoves;
+    }
+
+    /** @return list of possible moves for the next player, built from the bitmap */
+    public List<PositionDTO> getPossibleMoves() {
+        boolean endGame = status != GameInfo.GameStatus.RUNNING;
+        List<PositionDTO> list = new ArrayList<>();
+        for (int i = 0; i < possibleMoves.length; i++) {
+            long word = possibleMoves[i];
+            while (word != 0) {
+                int square = (i << 6) + Long.numberOfTrailingZeros(word);
+                list.add(new PositionDTO(square / side, square % side, endGame));
+                word &= word - 1;
+            }
+        }
+        return list;
+    }
+
+    /** @return current score, index 0 = black, index 1 = white */
+    public int[] getScore() {
+        return score;
+    }
+
+    /** @return color of the next player to move ("BLACK" or "WHITE") */
+    public String getNextColor() {
+        return nextColor;
+    }
+
+    /** @return current status of the game */
+    public GameInfo.GameStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @param info the state of the previous update
+     * @return true if this delta is the next update of the given state
+     */
+    public boolean follows(GameInfo info) {
+        return info != null && info.getSequence() + 1 == sequence;
+    }
+
+    /**
+     * Applies the changes to the state of the previous update.
+     *
+     * @param info the state of the previous update, see {@link #follows}
+     * @return the new state of the game
+     */
+    public GameInfo applyTo(GameInfo info) {
+        Set<PositionDTO> black = new LinkedHashSet<>(info.getBlackTokens());
+        black.removeAll(whiteTokens);
+        black.removeAll(emptied);
+        black.addAll(blackTokens);
+        Set<PositionDTO> white = new LinkedHashSet<>(info.getWhiteTokens());
+        white.removeAll(blackTokens);
+        white.removeAll(emptied);
+        white.addAll(whiteTokens);
+        boolean endGame = status != GameInfo.GameStatus.RUNNING;
+        return new GameInfo(withEndGame(black, endGame), withEndGame(white, endGame),
+                getPossibleMoves(), score, nextColor, status, sequence);
+    }
+
+    // The positions again, flagged with the status of the game.
+    private static List<PositionDTO> withEndGame(Collection<PositionDTO> positions, boolean endGame) {
+        List<PositionDTO> list = new ArrayList<>(positions.size());
+        for (PositionDTO position : positions) {
+            list.add(position.getEndGame() == endGame ? position
+                    : new PositionDTO(position.getRow(), position.getCol(), endGame));
+        }
+        return list;
+    }
+}
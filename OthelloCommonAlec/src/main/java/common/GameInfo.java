@@ -32,6 +32,9 @@ public class GameInfo implements Serializable {
     /** Current status of the game (running, endgame, surrender). */
     private final GameStatus status;
 
+    /** Number of the update in the game, see {@link GameDelta}; 0 if not numbered. */
+    private final int sequence;
+
     /**
      * Constructs a new game state snapshot.
      *
@@ -48,12 +51,34 @@ public class GameInfo implements Serializable {
                     int[] score,
                     String nextColor,
                     GameStatus status) {
+        this(blackTokens, whiteTokens, possibleMoves, score, nextColor, status, 0);
+    }
+
+    /**
+     * Constructs a new numbered game state snapshot.
+     *
+     * @param blackTokens   list of positions of black tokens
+     * @param whiteTokens   list of positions of white tokens
+     * @param possibleMoves list of valid moves for the next player
+     * @param score         the current score, index 0 = black, index 1 = white
+     * @param nextColor     the color of the next player ("BLACK" or "WHITE")
+     * @param status        the current status of the game
+     * @param sequence      the number of the update in the game
+     */
+    public GameInfo(List<PositionDTO> blackTokens,
+                    List<PositionDTO> whiteTokens,
+                    List<PositionDTO> possibleMoves,
+                    int[] score,
+                    String nextColor,
+                    GameStatus status,
+                    int sequence) {
         this.blackTokens = blackTokens;
         this.whiteTokens = whiteTokens;
         this.possibleMoves = possibleMoves;
         this.score = score;
         this.nextColor = nextColor;
         this.status = status;
+        this.sequence = sequence;
     }
 
     /** @return list of positions of all black tokens */
@@ -86,6 +111,11 @@ public class GameInfo implements Serializable {
         return status;
     }
 
+    /** @return number of the update in the game, 0 if not numbered */
+    public int getSequence() {
+        return sequence;
+    }
+
     /**
      * Enumeration of possible game statuses.
      */
@@ -1,10 +1,16 @@
 package common;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.net.InetAddress;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The <code> Members </code> represents a list of all connected users.
@@ -14,17 +20,39 @@ import java.util.List;
  * @author Fran&ccedil;ois B&eacutel;langer
  * @author Paul Holden
  * @version December 2003
+ *
+ * Alec : the users are indexed by id, in the order they joined, so that
+ * finding, adding and removing a user no longer walks the list. The list is
+ * still serialized as before, a list of users, so that the clients built
+ * before can read it.
  */
 public class Members implements Iterable<User>, Serializable {
 
-    private final List<User> users;
+    // Alec : the serial number and the fields of the list before the index
+    private static final long serialVersionUID = -5679999408677850723L;
+    private static final ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("users", List.class)
+    };
+
+    private transient Map<Integer, User> users;
 
     /**
      * Constructs an empty list of users.
      *
      */
     public Members() {
-        users = new ArrayList<>();
+        users = new LinkedHashMap<>();
+    }
+
+    /**
+     * Constructs a copy of a list of users.
+     * Added by @AlecWaumans: the server sends copies, the list changing
+     * while it is written to a client.
+     *
+     * @param other the list to copy.
+     */
+    public Members(Members other) {
+        users = new LinkedHashMap<>(other.users);
     }
 
     /**
@@ -47,9 +75,7 @@ public class Members implements Iterable<User>, Serializable {
      * @param user user connected.
      */
     public void add(User user) {
-        if (!users.contains(user)) {
-            users.add(user);
-        }
+        users.putIfAbsent(user.getId(), user);
     }
 
     /**
@@ -58,16 +84,7 @@ public class Members implements Iterable<User>, Serializable {
      * @param id userID of the user disconnected.
      */
     public void remove(int id) {
-        Iterator<User> it = users.iterator();
-        boolean find = false;
-        User current = null;
-        while (it.hasNext() && !find) {
-            current = it.next();
-            find = current.is(id);
-        }
-        if (find) {
-            users.remove(current);
-        }
+        users.remove(id);
     }
     
     
@@ -90,7 +107,7 @@ public class Members implements Iterable<User>, Serializable {
 
     @Override
     public Iterator<User> iterator() {
-        return users.iterator();
+        return users.values().iterator();
     }
 
     /**
@@ -113,13 +130,39 @@ public class Members implements Iterable<User>, Serializable {
      * @return the user of the given id.
      */
     public User getUser(int id) {
-        Iterator<User> it = users.iterator();
-        boolean find = false;
-        User current = null;
-        while (it.hasNext() && !find) {
-            current = it.next();
-            find = current.is(id);
+        return users.get(id);
+    }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * Writes the users as a list, the form of the class before the index.
+     *
+     * @param out the stream to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("users", new ArrayList<>(users.values()));
+        out.writeFields();
+    }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * Reads the list of users and indexes it.
+     *
+     * @param in the stream to read from.
+     * @throws IOException if an I/O error occurs.
+     * @throws ClassNotFoundException if the class of a user is unknown.
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        List<User> list = (List<User>) fields.get("users", null);
+        users = new LinkedHashMap<>();
+        if (list != null) {
+            for (User user : list) {
+                add(user);
+            }
         }
-        return find ? current : null;
     }
 }
@@ -0,0 +1,84 @@
+package common;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Author: Alec Waumans (2025)
+ * Changes of the list of connected users, sent instead of the whole
+ * {@link Members} each time a user joins or leaves.
+ *
+ * <p>The lists of users are numbered: a delta takes the list from one number
+ * to the next, and may gather all the users who joined or left during a short
+ * time. Applying a delta removes the users who left, then adds the users who
+ * joined, so applying it twice changes nothing. A client whose list has
+ * another number than the one the delta starts from asks for the whole list
+ * again (see {@link message.Type#MEMBERS}).
+ */
+public class MembersDelta implements Serializable {
+
+    /** Serialization identifier for network transmission. */
+    private static final long serialVersionUID = 1L;
+
+    /** Number of the list the delta applies to. */
+    private final int fromVersion;
+
+    /** Number of the list after the delta. */
+    private final int toVersion;
+
+    /** Ids of the users who left. */
+    private final int[] left;
+
+    /** Users who joined, after the ones who left. */
+    private final List<User> joined;
+
+    /**
+     * Constructs a delta.
+     *
+     * @param fromVersion the number of the list the delta applies to
+     * @param toVersion   the number of the list after the delta
+     * @param left        the ids of the users who left
+     * @param joined      the users who joined
+     */
+    public MembersDelta(int fromVersion, int toVersion, int[] left, List<User> joined) {
+        this.fromVersion = fromVersion;
+        this.toVersion = toVersion;
+        this.left = left;
+        this.joined = joined;
+    }
+
+    /** @return the number of the list the delta applies to */
+    public int getFromVersion() {
+        return fromVersion;
+    }
+
+    /** @return the number of the list after the delta */
+    public int getToVersion() {
+        return toVersion;
+    }
+
+    /** @return the ids of the users who left */
+    public int[] getLeft() {
+        return left;
+    }
+
+    /** @return the users who joined */
+    public List<User> getJoined() {
+        return joined;
+    }
+
+    /**
+     * Applies the delta to a list of users.
+     *
+     * @param members the list, numbered {@link #getFromVersion()}
+     */
+    public void applyTo(Members members) {
+        for (int id : left) {
+            members.remove(id);
+        }
+        for (User user : joined) {
+            members.remove(user.getId());
+            members.add(user);
+        }
+    }
+}
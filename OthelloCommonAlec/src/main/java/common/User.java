@@ -13,6 +13,9 @@ import java.net.InetAddress;
  */
 public class User implements Serializable {
 
+    // Alec : the serial number of the class before getInetAddress was added
+    private static final long serialVersionUID = 3699861322275087846L;
+
     /**
      * Represents the server administrator.
      */
@@ -111,6 +114,15 @@ public class User implements Serializable {
         return address.getHostAddress();
     }
 
+    /**
+     * Ajout de @AlecWaumans : the address itself, null if unknown.
+     *
+     * @return the user IP address.
+     */
+    public InetAddress getInetAddress() {
+        return address;
+    }
+
     @Override
     public String toString() {
         return name + "(" + id + ")";
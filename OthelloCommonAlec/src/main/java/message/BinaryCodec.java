@@ -0,0 +1,768 @@
+package message;
+
+import common.Config;
+import common.GameDelta;
+import common.GameInfo;
+import common.Members;
+import common.MembersDelta;
+import common.PositionDTO;
+import common.User;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Author: Alec Waumans (2025)
+ * Compact binary encoding of the messages, used instead of Java serialization
+ * when both sides support it.
+ *
+ * <p>Negotiation: a client wanting the binary protocol starts the connection
+ * with {@link #hello(int)}, the magic number {@link #MAGIC} followed by the
+ * highest version it speaks. The server answers the same way with the
+ * version chosen, or 0 if it refuses; the client then reconnects with Java
+ * serialization. A connection starting with the header of a Java
+ * serialization stream ({@link #JAVA_STREAM}) is an older client, served as
+ * before. A server older than the protocol cannot read a hello, so the
+ * clients offer it only when asked to (see {@link #isOffered()}).
+ *
+ * <p>Frames: each message is a varint length followed by that many bytes: a
+ * tag telling the class of the message, then its fields. Integers are varints,
+ * strings are UTF-8 with their length plus one (0 for null), and the tokens
+ * and possible moves of a {@link GameInfo} are bitmaps of the board, while a
+ * {@link GameDelta} lists its few changed squares as pairs of varints, then
+ * its possible moves as a bitmap. Objects
+ * the codec does not know (another message class, an exception sent by the
+ * server) go in a frame as Java serialization, so every object still goes
+ * through.
+ */
+public final class BinaryCodec {
+
+    /** First int sent by both sides of a binary connection ("OTHB"). */
+    public static final int MAGIC = 0x4F544842;
+
+    /** Version of the encoding. */
+    public static final int VERSION = 1;
+
+    /** First int of a Java serialization stream (magic number and version). */
+    public static final int JAVA_STREAM = 0xACED0005;
+
+    /** Size of the hello sent by each side: the magic number and a version. */
+    public static final int HELLO_BYTES = 5;
+
+    /** Largest frame accepted, in bytes. */
+    public static final int MAX_FRAME = 1 << 20;
+
+    // Tags of the frames, one per class of message.
+    private static final int JAVA = 0;
+    private static final int PROFILE = 1;
+    private static final int MEMBERS = 2;
+    private static final int PLAY = 3;
+    private static final int UNDO = 4;
+    private static final int REDO = 5;
+    private static final int QUIT = 6;
+    private static final int GAMEINFO = 7;
+    private static final int INIT = 8;
+    private static final int RESET = 9;
+    private static final int TO_RECIPIENT = 10;
+    private static final int GAMEDELTA = 11;
+    private static final int RESYNC = 12;
+    private static final int MEMBERSDELTA = 13;
+    private static final int REPLAY = 14;
+
+    // Largest board side whose tokens are sent as bitmaps.
+    private static final int MAX_SIDE = 64;
+
+    private BinaryCodec() {
+    }
+
+    /**
+     * @return true unless -Dothello.protocol=java turns the binary protocol off.
+     */
+    public static boolean isEnabled() {
+        return !"java".equalsIgnoreCase(System.getProperty("othello.protocol", "binary").trim());
+    }
+
+    /**
+     * @return true if -Dothello.protocol=binary asks a client to offer the
+     * binary protocol; off by default while servers older than it remain.
+     */
+    public static boolean isOffered() {
+        return "binary".equalsIgnoreCase(System.getProperty("othello.protocol", "").trim());
+    }
+
+    /**
+     * @param version The version offered or chosen, 0 to refuse.
+     * @return the bytes starting a binary connection.
+     */
+    public static byte[] hello(int version) {
+        return new byte[]{(byte) (MAGIC >>> 24), (byte) (MAGIC >>> 16),
+            (byte) (MAGIC >>> 8), (byte) MAGIC, (byte) version};
+    }
+
+    /**
+     * Chooses the version of a connection, on the server side.
+     *
+     * @param offered The highest version spoken by the client.
+     * @return the version to use, or 0 if the binary protocol is refused.
+     */
+    public static int negotiate(int offered) {
+        if (!isEnabled() || offered < 1) {
+            return 0;
+        }
+        return Math.min(offered, VERSION);
+    }
+
+    /**
+     * Encodes a message in a frame.
+     *
+     * @param message The message, or any serializable object.
+     * @return the frame, length included.
+     * @throws IOException If the object cannot be serialized.
+     */
+    public static byte[] encode(Object message) throws IOException {
+        Writer payload = new Writer();
+        if (!encodeKnown(message, payload)) {
+            payload.reset();
+            payload.write(JAVA);
+            try (ObjectOutputStream out = new ObjectOutputStream(payload)) {
+                out.writeObject(message);
+            }
+        }
+        if (payload.size() > MAX_FRAME) {
+            throw new StreamCorruptedException("frame larger than " + MAX_FRAME + " bytes");
+        }
+        Writer frame = new Writer();
+        frame.varint(payload.size());
+        payload.writeTo(frame);
+        return frame.toByteArray();
+    }
+
+    /**
+     * Returns the size of the first frame of a buffer.
+     *
+     * @param buffer The bytes received.
+     * @param offset The start of the frame.
+     * @param length The number of bytes received from offset.
+     * @return the size of the frame, length included, or -1 if its length has
+     * not all arrived.
+     * @throws IOException If the length is not valid.
+     */
+    public static int frameLength(byte[] buffer, int offset, int length) throws IOException {
+        int value = 0;
+        for (int i = 0; i < 5; i++) {
+            if (i >= length) {
+                return -1;
+            }
+            int b = buffer[offset + i] & 0xFF;
+            value |= (b & 0x7F) << (7 * i);
+            if ((b & 0x80) == 0) {
+                if (value < 0 || value > MAX_FRAME) {
+                    throw new StreamCorruptedException("invalid frame length: " + value);
+                }
+                return i + 1 + value;
+            }
+        }
+        throw new StreamCorruptedException("invalid frame length");
+    }
+
+    /**
+     * Decodes a complete frame.
+     *
+     * @param buffer The bytes received.
+     * @param offset The start of the frame.
+     * @param length The size of the frame, see {@link #frameLength}.
+     * @return the message.
+     * @throws IOException If the frame is not valid.
+     * @throws ClassNotFoundException If a Java serialized object is of an
+     * unknown class.
+     */
+    public static Object decode(byte[] buffer, int offset, int length)
+            throws IOException, ClassNotFoundException {
+        Reader in = new Reader(buffer, offset, offset + length);
+        int size = in.varint();
+        if (size != in.remaining()) {
+            throw new StreamCorruptedException("invalid frame length: " + size);
+        }
+        return decodePayload(in);
+    }
+
+    /**
+     * Reads a frame from a blocking stream.
+     *
+     * @param input The stream.
+     * @return the message.
+     * @throws IOException If the stream ends or the frame is not valid.
+     * @throws ClassNotFoundException If a Java serialized object is of an
+     * unknown class.
+     */
+    public static Object read(DataInputStream input) throws IOException, ClassNotFoundException {
+        int size = 0;
+        for (int shift = 0;; shift += 7) {
+            if (shift > 28) {
+                throw new StreamCorruptedException("invalid frame length");
+            }
+            int b = input.readUnsignedByte();
+            size |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        if (size < 0 || size > MAX_FRAME) {
+            throw new StreamCorruptedException("invalid frame length: " + size);
+        }
+        byte[] payload = new byte[size];
+        input.readFully(payload);
+        return decodePayload(new Reader(payload, 0, size));
+    }
+
+    /**
+     * Reads the hello of the other side.
+     *
+     * @param input The stream.
+     * @return the version it sent, or -1 if it is not a binary hello.
+     * @throws IOException If the stream ends.
+     */
+    public static int readHello(InputStream input) throws IOException {
+        DataInputStream data = new DataInputStream(input);
+        if (data.readInt() != MAGIC) {
+            return -1;
+        }
+        return data.readUnsignedByte();
+    }
+
+    private static boolean encodeKnown(Object message, Writer out) throws IOException {
+        if (message == null) {
+            return false;
+        }
+        Class<?> type = message.getClass();
+        if (type == MessageProfile.class) {
+            User author = ((Message) message).getAuthor();
+            out.write(PROFILE);
+            out.varint(author.getId());
+            out.string(author.getName());
+        } else if (type == MessageMembers.class) {
+            Members members = (Members) ((Message) message).getContent();
+            if (members == null) {
+                return false;
+            }
+            List<User> users = new ArrayList<>();
+            for (User user : members) {
+                users.add(user);
+            }
+            out.write(MEMBERS);
+            out.varint(((MessageMembers) message).getVersion());
+            out.varint(users.size());
+            for (User user : users) {
+                out.user(user);
+            }
+        } else if (type == MessageMembersDelta.class) {
+            MembersDelta delta = (MembersDelta) ((Message) message).getContent();
+            out.write(MEMBERSDELTA);
+            out.varint(delta.getFromVersion());
+            out.varint(delta.getToVersion());
+            out.varint(delta.getLeft().length);
+            for (int id : delta.getLeft()) {
+                out.varint(id);
+            }
+            out.varint(delta.getJoined().size());
+            for (User user : delta.getJoined()) {
+                out.user(user);
+            }
+        } else if (type == MessagePlay.class) {
+            Message play = (Message) message;
+            PositionDTO position = (PositionDTO) play.getContent();
+            out.write(PLAY);
+            out.user(play.getAuthor());
+            out.varint(position.getRow());
+            out.varint(position.getCol());
+            out.write(position.getEndGame() ? 1 : 0);
+        } else if (type == MessageUndo.class) {
+            out.write(UNDO);
+            out.user(((Message) message).getAuthor());
+        } else if (type == MessageRedo.class) {
+            out.write(REDO);
+            out.user(((Message) message).getAuthor());
+        } else if (type == MessageQuit.class) {
+            out.write(QUIT);
+            out.user(((Message) message).getAuthor());
+        } else if (type == MessageReset.class) {
+            out.write(RESET);
+            out.user(((Message) message).getAuthor());
+        } else if (type == MessageInit.class) {
+            Message init = (Message) message;
+            Config config = (Config) init.getContent();
+            out.write(INIT);
+            out.user(init.getAuthor());
+            out.varint(config.getBoardSize());
+            out.write((config.isCpuMode() ? 1 : 0) | (config.isSmartCPU() ? 2 : 0)
+                    | (config.isDeltaUpdates() ? 4 : 0));
+            out.varint(config.getCpuThreads());
+        } else if (type == MessageGameInfo.class) {
+            Message gameInfo = (Message) message;
+            GameInfo info = (GameInfo) gameInfo.getContent();
+            if (!isPackable(info)) {
+                return false;
+            }
+            out.write(GAMEINFO);
+            out.user(gameInfo.getAuthor());
+            out.user(gameInfo.getRecipient());
+            out.gameInfo(info);
+        } else if (type == MessageGameDelta.class) {
+            Message gameDelta = (Message) message;
+            GameDelta delta = (GameDelta) gameDelta.getContent();
+            if (!isPackable(delta)) {
+                return false;
+            }
+            out.write(GAMEDELTA);
+            out.user(gameDelta.getAuthor());
+            out.user(gameDelta.getRecipient());
+            out.gameDelta(delta);
+        } else if (type == MessageResync.class) {
+            out.write(RESYNC);
+            out.user(((Message) message).getAuthor());
+        } else if (type == MessageReplay.class) {
+            MessageReplay replay = (MessageReplay) message;
+            out.write(REPLAY);
+            out.user(replay.getAuthor());
+            out.varint(replay.getGameId());
+            out.varint(replay.getEvents());
+        } else if (type == MessageToRecipient.class) {
+            Message text = (Message) message;
+            out.write(TO_RECIPIENT);
+            out.write(text.getType().ordinal());
+            out.user(text.getAuthor());
+            out.user(text.getRecipient());
+            out.string((String) text.getContent());
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private static Object decodePayload(Reader in) throws IOException, ClassNotFoundException {
+        int tag = in.u8();
+        Object message = switch (tag) {
+            case JAVA -> {
+                try (ObjectInputStream objects = new ObjectInputStream(in.rest())) {
+                    yield objects.readObject();
+                } catch (RuntimeException e) {
+                    // a damaged stream may fail anywhere in the deserialization
+                    throw (StreamCorruptedException) new StreamCorruptedException(
+                            "invalid serialized object").initCause(e);
+                }
+            }
+            case PROFILE -> new MessageProfile(in.varint(), in.string());
+            case MEMBERS -> {
+                int version = in.varint();
+                int count = in.varint();
+                Members members = new Members();
+                for (int i = 0; i < count; i++) {
+                    members.add(in.member());
+                }
+                yield new MessageMembers(members, version);
+            }
+            case MEMBERSDELTA -> {
+                int fromVersion = in.varint();
+                int toVersion = in.varint();
+                int[] left = new int[in.count()];
+                for (int i = 0; i < left.length; i++) {
+                    left[i] = in.varint();
+                }
+                int count = in.count();
+                List<User> joined = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    joined.add(in.member());
+                }
+                yield new MessageMembersDelta(new MembersDelta(fromVersion, toVersion, left, joined));
+            }
+            case PLAY -> {
+                User author = in.user();
+                int row = in.varint();
+                int col = in.varint();
+                yield new MessagePlay(author, new PositionDTO(row, col, in.u8() != 0));
+            }
+            case UNDO -> new MessageUndo(in.user());
+            case REDO -> new MessageRedo(in.user());
+            case QUIT -> new MessageQuit(in.user());
+            case RESET -> new MessageReset(in.user());
+            case INIT -> {
+                User author = in.user();
+                int size = in.varint();
+                int flags = in.u8();
+                yield new MessageInit(author, new Config(size, (flags & 1) != 0,
+                        (flags & 2) != 0, in.varint(), (flags & 4) != 0));
+            }
+            case GAMEINFO -> {
+                User author = in.user();
+                User recipient = in.user();
+                yield new MessageGameInfo(author, recipient, in.gameInfo());
+            }
+            case GAMEDELTA -> {
+                User author = in.user();
+                User recipient = in.user();
+                yield new MessageGameDelta(author, recipient, in.gameDelta());
+            }
+            case RESYNC -> new MessageResync(in.user());
+            case REPLAY -> {
+                User author = in.user();
+                int gameId = in.varint();
+                yield new MessageReplay(author, gameId, in.varint());
+            }
+            case TO_RECIPIENT -> {
+                Type type = Type.values()[in.index(Type.values().length)];
+                User author = in.user();
+                User recipient = in.user();
+                yield new MessageToRecipient(type, author, recipient, in.string());
+            }
+            default -> throw new StreamCorruptedException("unknown frame tag: " + tag);
+        };
+        if (tag != JAVA && in.remaining() != 0) {
+            throw new StreamCorruptedException("unexpected bytes after the message");
+        }
+        return message;
+    }
+
+    // True if the positions of the game fit in bitmaps, with one end-game flag.
+    private static boolean isPackable(GameInfo info) {
+        if (info == null || info.getBlackTokens() == null || info.getWhiteTokens() == null
+                || info.getPossibleMoves() == null) {
+            return false;
+        }
+        Boolean endGame = null;
+        for (List<PositionDTO> list : List.of(info.getBlackTokens(),
+                info.getWhiteTokens(), info.getPossibleMoves())) {
+            for (PositionDTO position : list) {
+                if (position.getRow() < 0 || position.getRow() >= MAX_SIDE
+                        || position.getCol() < 0 || position.getCol() >= MAX_SIDE) {
+                    return false;
+                }
+                if (endGame == null) {
+                    endGame = position.getEndGame();
+                } else if (endGame != position.getEndGame()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // True if the positions of the delta fit in varints, flagged with its status.
+    private static boolean isPackable(GameDelta delta) {
+        if (delta == null || delta.getBlackTokens() == null || delta.getWhiteTokens() == null
+                || delta.getEmptied() == null || delta.getPossibleMoveBits() == null
+                || delta.getSide() < 0 || delta.getSide() > MAX_SIDE
+                || delta.getPossibleMoveBits().length != (delta.getSide() * delta.getSide() + 63) >>> 6) {
+            return false;
+        }
+        boolean endGame = delta.getStatus() != null
+                && delta.getStatus() != GameInfo.GameStatus.RUNNING;
+        for (List<PositionDTO> list : List.of(delta.getBlackTokens(), delta.getWhiteTokens(),
+                delta.getEmptied())) {
+            for (PositionDTO position : list) {
+                if (position.getRow() < 0 || position.getCol() < 0
+                        || position.getEndGame() != endGame) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Bytes of a frame being written.
+    private static final class Writer extends ByteArrayOutputStream {
+
+        Writer() {
+            super(64);
+        }
+
+        void varint(int value) {
+            while ((value & ~0x7F) != 0) {
+                write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            write(value);
+        }
+
+        void string(String value) {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length + 1);
+            write(bytes, 0, bytes.length);
+        }
+
+        void user(User user) {
+            if (user == null) {
+                write(0);
+                return;
+            }
+            InetAddress address = user.getInetAddress();
+            byte[] raw = address == null ? new byte[0] : address.getAddress();
+            write(1 + raw.length); // 1, 5 or 17: present, then the address
+            varint(user.getId());
+            string(user.getName());
+            write(raw, 0, raw.length);
+        }
+
+        void gameInfo(GameInfo info) {
+            List<List<PositionDTO>> lists = List.of(info.getBlackTokens(),
+                    info.getWhiteTokens(), info.getPossibleMoves());
+            int side = 0;
+            boolean endGame = false;
+            for (List<PositionDTO> list : lists) {
+                for (PositionDTO position : list) {
+                    side = Math.max(side, Math.max(position.getRow(), position.getCol()) + 1);
+                    endGame = position.getEndGame();
+                }
+            }
+            int[] score = info.getScore();
+            int flags = (endGame ? 1 : 0) | (score != null ? 2 : 0);
+            write(flags);
+            varint(info.getSequence());
+            varint(side);
+            for (List<PositionDTO> list : lists) {
+                byte[] bitmap = new byte[(side * side + 7) >>> 3];
+                for (PositionDTO position : list) {
+                    int square = position.getRow() * side + position.getCol();
+                    bitmap[square >>> 3] |= (byte) (1 << (square & 7));
+                }
+                write(bitmap, 0, bitmap.length);
+            }
+            tail(score, info.getNextColor(), info.getStatus());
+        }
+
+        void gameDelta(GameDelta delta) {
+            varint(delta.getSequence());
+            write(delta.getScore() != null ? 2 : 0);
+            for (List<PositionDTO> list : List.of(delta.getBlackTokens(), delta.getWhiteTokens(),
+                    delta.getEmptied())) {
+                varint(list.size());
+                for (PositionDTO position : list) {
+                    varint(position.getRow());
+                    varint(position.getCol());
+                }
+            }
+            int side = delta.getSide();
+            long[] moves = delta.getPossibleMoveBits();
+            varint(side);
+            for (int i = 0; i < (side * side + 7) >>> 3; i++) {
+                write((int) (moves[i >>> 3] >>> ((i & 7) << 3)));
+            }
+            tail(delta.getScore(), delta.getNextColor(), delta.getStatus());
+        }
+
+        // Score, next color and status, common to the states and the deltas.
+        private void tail(int[] score, String nextColor, GameInfo.GameStatus status) {
+            if (score != null) {
+                varint(score.length);
+                for (int value : score) {
+                    varint((value << 1) ^ (value >> 31)); // zigzag
+                }
+            }
+            string(nextColor);
+            write(status == null ? 0 : status.ordinal() + 1);
+        }
+    }
+
+    // Bytes of a frame being read.
+    private static final class Reader {
+
+        private final byte[] buffer;
+        private int position;
+        private final int limit;
+
+        Reader(byte[] buffer, int offset, int limit) {
+            this.buffer = buffer;
+            this.position = offset;
+            this.limit = limit;
+        }
+
+        int remaining() {
+            return limit - position;
+        }
+
+        int u8() throws IOException {
+            if (position >= limit) {
+                throw new EOFException("truncated frame");
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        int varint() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift <= 28; shift += 7) {
+                int b = u8();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new StreamCorruptedException("invalid varint");
+        }
+
+        // A number of items, each taking at least one byte of the frame.
+        int count() throws IOException {
+            int value = varint();
+            if (value < 0 || value > remaining()) {
+                throw new StreamCorruptedException("invalid count: " + value);
+            }
+            return value;
+        }
+
+        int index(int bound) throws IOException {
+            int value = u8();
+            if (value >= bound) {
+                throw new StreamCorruptedException("invalid index: " + value);
+            }
+            return value;
+        }
+
+        byte[] bytes(int count) throws IOException {
+            if (count < 0 || count > remaining()) {
+                throw new EOFException("truncated frame");
+            }
+            byte[] bytes = new byte[count];
+            System.arraycopy(buffer, position, bytes, 0, count);
+            position += count;
+            return bytes;
+        }
+
+        String string() throws IOException {
+            int length = varint();
+            if (length == 0) {
+                return null;
+            }
+            return new String(bytes(length - 1), StandardCharsets.UTF_8);
+        }
+
+        // A connected user, never null.
+        User member() throws IOException {
+            User user = user();
+            if (user == null) {
+                throw new StreamCorruptedException("missing member");
+            }
+            return user;
+        }
+
+        User user() throws IOException {
+            int head = u8();
+            if (head == 0) {
+                return null;
+            }
+            if (head != 1 && head != 5 && head != 17) {
+                throw new StreamCorruptedException("invalid user");
+            }
+            int id = varint();
+            String name = string();
+            InetAddress address = head == 1 ? null : InetAddress.getByAddress(bytes(head - 1));
+            return new User(id, name, address);
+        }
+
+        GameInfo gameInfo() throws IOException {
+            int flags = u8();
+            boolean endGame = (flags & 1) != 0;
+            int sequence = varint();
+            int side = varint();
+            if (side > MAX_SIDE) {
+                throw new StreamCorruptedException("invalid board size: " + side);
+            }
+            List<List<PositionDTO>> lists = new ArrayList<>(3);
+            for (int i = 0; i < 3; i++) {
+                byte[] bitmap = bytes((side * side + 7) >>> 3);
+                List<PositionDTO> list = new ArrayList<>();
+                for (int square = 0; square < side * side; square++) {
+                    if ((bitmap[square >>> 3] & (1 << (square & 7))) != 0) {
+                        list.add(new PositionDTO(square / side, square % side, endGame));
+                    }
+                }
+                lists.add(list);
+            }
+            int[] score = score(flags);
+            String nextColor = string();
+            return new GameInfo(lists.get(0), lists.get(1), lists.get(2), score,
+                    nextColor, status(), sequence);
+        }
+
+        GameDelta gameDelta() throws IOException {
+            int sequence = varint();
+            int flags = u8();
+            int[][] squares = new int[3][];
+            for (int i = 0; i < 3; i++) {
+                int count = varint();
+                if (count > remaining() / 2) {
+                    throw new EOFException("truncated frame");
+                }
+                squares[i] = new int[2 * count];
+                for (int j = 0; j < 2 * count; j++) {
+                    squares[i][j] = varint();
+                }
+            }
+            int side = varint();
+            if (side > MAX_SIDE) {
+                throw new StreamCorruptedException("invalid board size: " + side);
+            }
+            byte[] bitmap = bytes((side * side + 7) >>> 3);
+            long[] moves = new long[(side * side + 63) >>> 6];
+            for (int i = 0; i < bitmap.length; i++) {
+                moves[i >>> 3] |= (bitmap[i] & 0xFFL) << ((i & 7) << 3);
+            }
+            int[] score = score(flags);
+            String nextColor = string();
+            GameInfo.GameStatus status = status();
+            boolean endGame = status != null && status != GameInfo.GameStatus.RUNNING;
+            List<List<PositionDTO>> lists = new ArrayList<>(3);
+            for (int[] pairs : squares) {
+                List<PositionDTO> list = new ArrayList<>(pairs.length / 2);
+                for (int j = 0; j < pairs.length; j += 2) {
+                    list.add(new PositionDTO(pairs[j], pairs[j + 1], endGame));
+                }
+                lists.add(list);
+            }
+            return new GameDelta(sequence, lists.get(0), lists.get(1), lists.get(2),
+                    side, moves, score, nextColor, status);
+        }
+
+        private int[] score(int flags) throws IOException {
+            if ((flags & 2) == 0) {
+                return null;
+            }
+            int length = varint();
+            if (length > remaining()) {
+                throw new EOFException("truncated frame");
+            }
+            int[] score = new int[length];
+            for (int i = 0; i < length; i++) {
+                int value = varint();
+                score[i] = (value >>> 1) ^ -(value & 1);
+            }
+            return score;
+        }
+
+        private GameInfo.GameStatus status() throws IOException {
+            int status = u8();
+            GameInfo.GameStatus[] statuses = GameInfo.GameStatus.values();
+            if (status > statuses.length) {
+                throw new StreamCorruptedException("invalid game status: " + status);
+            }
+            return status == 0 ? null : statuses[status - 1];
+        }
+
+        InputStream rest() {
+            InputStream in = new ByteArrayInputStream(buffer, position, limit - position);
+            position = limit;
+            return in;
+        }
+    }
+}
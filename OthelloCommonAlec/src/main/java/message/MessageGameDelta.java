@@ -0,0 +1,75 @@
+package message;
+
+import common.GameDelta;
+import common.User;
+
+/**
+ * @author : Alec Waumans (2025)
+ * Represents a message containing the changes of the game state for a specific player.
+ */
+public class MessageGameDelta implements Message {
+
+    /** The user who sends the message (e.g., the server or admin). */
+    private final User author;
+
+    /** The intended recipient of the message (specific player). */
+    private final User recipient;
+
+    /** The changes of the game state. */
+    private final GameDelta gameDelta;
+
+    /**
+     * Constructs a new MessageGameDelta.
+     *
+     * @param author    The sender of the message.
+     * @param recipient The player who will receive this message.
+     * @param gameDelta The changes of the game state.
+     */
+    public MessageGameDelta(User author, User recipient, GameDelta gameDelta) {
+        this.author = author;
+        this.recipient = recipient;
+        this.gameDelta = gameDelta;
+    }
+
+    /**
+     * Returns the type of the message.
+     * In this case, it is always {@link Type#GAMEDELTA}.
+     *
+     * @return The message type.
+     */
+    @Override
+    public Type getType() {
+        return Type.GAMEDELTA;
+    }
+
+    /**
+     * Returns the author (sender) of the message.
+     *
+     * @return The sender's {@link User} object.
+     */
+    @Override
+    public User getAuthor() {
+        return author;
+    }
+
+    /**
+     * Returns the recipient (receiver) of the message.
+     *
+     * @return The recipient's {@link User} object.
+     */
+    @Override
+    public User getRecipient() {
+        return recipient;
+    }
+
+    /**
+     * Returns the content of the message.
+     * In this case, it is the {@link GameDelta} object with the changes.
+     *
+     * @return The changes of the game state.
+     */
+    @Override
+    public Object getContent() {
+        return gameDelta;
+    }
+}
@@ -11,10 +11,19 @@ import common.User;
  * @author Fran&ccedil;ois B&eacutel;langer
  * @author Paul Holden
  * @version December 2003
+ *
+ * Alec : the list is numbered, for the changes sent after it (see
+ * {@link common.MembersDelta}). Sent by a client, the message asks for the
+ * whole list.
  */
 public class MessageMembers implements Message {
 
+    // Alec : the serial number of the message before the version; a reader
+    // built before ignores the version
+    private static final long serialVersionUID = 6851174976153052132L;
+
     private final Members members;
+    private final int version;
 
     /**
      * Constructs message with the list of all connected users.
@@ -22,7 +31,27 @@ public class MessageMembers implements Message {
      * @param members list of all connected users.
      */
     public MessageMembers(Members members) {
+        this(members, 0);
+    }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * Constructs message with the numbered list of all connected users.
+     *
+     * @param members list of all connected users.
+     * @param version number of the list.
+     */
+    public MessageMembers(Members members, int version) {
         this.members = members;
+        this.version = version;
+    }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * @return the number of the list.
+     */
+    public int getVersion() {
+        return version;
     }
 
     /**
@@ -0,0 +1,66 @@
+package message;
+
+import common.MembersDelta;
+import common.User;
+
+/**
+ * @author : Alec Waumans (2025)
+ * Represents a message containing the users who joined or left since the
+ * previous list of connected users.
+ */
+public class MessageMembersDelta implements Message {
+
+    /** The changes of the list of connected users. */
+    private final MembersDelta delta;
+
+    /**
+     * Constructs a new MessageMembersDelta.
+     *
+     * @param delta The changes of the list of connected users.
+     */
+    public MessageMembersDelta(MembersDelta delta) {
+        this.delta = delta;
+    }
+
+    /**
+     * Returns the type of the message.
+     * In this case, it is always {@link Type#MEMBERSDELTA}.
+     *
+     * @return The message type.
+     */
+    @Override
+    public Type getType() {
+        return Type.MEMBERSDELTA;
+    }
+
+    /**
+     * The author of the changes of the connected users is the administrator.
+     *
+     * @return the administrator.
+     */
+    @Override
+    public User getAuthor() {
+        return User.ADMIN;
+    }
+
+    /**
+     * The changes of the connected users are sent to everybody.
+     *
+     * @return everybody.
+     */
+    @Override
+    public User getRecipient() {
+        return User.EVERYBODY;
+    }
+
+    /**
+     * Returns the content of the message.
+     * In this case, it is the {@link MembersDelta} object with the changes.
+     *
+     * @return The changes of the list of connected users.
+     */
+    @Override
+    public Object getContent() {
+        return delta;
+    }
+}
@@ -0,0 +1,84 @@
+package message;
+
+import common.User;
+
+/**
+ * Author: Alec Waumans (2025)
+ * REPLAY-type message used to ask the server for a saved game, played again
+ * from its move log. The server answers with a {@link MessageGameInfo} of the
+ * position reached.
+ */
+public class MessageReplay implements Message {
+
+    /** The player asking for the game. */
+    private final User author;
+
+    /** The ID of the game. */
+    private final int gameId;
+
+    /** The number of events to play, {@link Integer#MAX_VALUE} for the whole game. */
+    private final int events;
+
+    /**
+     * Constructs a new REPLAY message for the whole game.
+     *
+     * @param author the player sending the request
+     * @param gameId the ID of the game
+     */
+    public MessageReplay(User author, int gameId) {
+        this(author, gameId, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructs a new REPLAY message, stopping at an earlier position.
+     *
+     * @param author the player sending the request
+     * @param gameId the ID of the game
+     * @param events the number of events to play
+     */
+    public MessageReplay(User author, int gameId, int events) {
+        this.author = author;
+        this.gameId = gameId;
+        this.events = events;
+    }
+
+    /** @return the author of the message */
+    @Override
+    public User getAuthor() {
+        return author;
+    }
+
+    /** @return the type of the message, always {@link Type#REPLAY} for this class */
+    @Override
+    public Type getType() {
+        return Type.REPLAY;
+    }
+
+    /**
+     * REPLAY messages are always addressed to the server (ADMIN user).
+     *
+     * @return the recipient of the message
+     */
+    @Override
+    public User getRecipient() {
+        return User.ADMIN;
+    }
+
+    /**
+     * @return the ID of the game
+     */
+    @Override
+    public Object getContent() {
+        return gameId;
+    }
+
+    /** @return the ID of the game */
+    public int getGameId() {
+        return gameId;
+    }
+
+    /** @return the number of events to play */
+    public int getEvents() {
+        return events;
+    }
+}
@@ -0,0 +1,55 @@
+package message;
+
+import common.User;
+
+/**
+ * Author: Alec Waumans (2025)
+ * RESYNC-type message used to ask the server for the complete game state,
+ * when the client missed an update.
+ */
+public class MessageResync implements Message {
+
+    /** The player asking for the game state. */
+    private final User author;
+
+    /**
+     * Constructs a new RESYNC message.
+     *
+     * @param author the player sending the request
+     */
+    public MessageResync(User author) {
+        this.author = author;
+    }
+
+    /** @return the author of the message */
+    @Override
+    public User getAuthor() {
+        return author;
+    }
+
+    /** @return the type of the message, always {@link Type#RESYNC} for this class */
+    @Override
+    public Type getType() {
+        return Type.RESYNC;
+    }
+
+    /**
+     * RESYNC messages are always addressed to the server (ADMIN user).
+     *
+     * @return the recipient of the message
+     */
+    @Override
+    public User getRecipient() {
+        return User.ADMIN;
+    }
+
+    /**
+     * RESYNC messages do not contain any additional content.
+     *
+     * @return null (no extra data)
+     */
+    @Override
+    public Object getContent() {
+        return null;
+    }
+}
@@ -48,5 +48,21 @@ public enum Type {
     /**
      * ALEC58399 - message to delete the historic of the author
      */
-    RESET;
+    RESET,
+    /**
+     * ALEC58399 - changes of the game state since the previous update
+     */
+    GAMEDELTA,
+    /**
+     * ALEC58399 - request for a complete game state, when updates were missed
+     */
+    RESYNC,
+    /**
+     * ALEC58399 - users who joined or left since the previous list of connected users
+     */
+    MEMBERSDELTA,
+    /**
+     * ALEC58399 - request for a saved game, played again from its move log
+     */
+    REPLAY;
 }
\ No newline at end of file
@@ -2,7 +2,6 @@ package main;
 
 import common.User;
 import java.io.IOException;
-import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Observable;
@@ -12,6 +11,8 @@ import java.util.logging.Logger;
 import message.Message;
 import server.model.Server;
 import server.DBManager;
+import server.PooledConnection;
+import server.UserDAO;
 
 /**
  * The <code> ChatServerConsole </code> contains all the methods necessary view
@@ -37,20 +38,29 @@ public class ServerConsole implements Observer {
      */
     public static void main(String[] args) {
         // Alec: Added to check JDBC connection to othello.db at startup and stop if it fails
-        try ( Connection conn = DBManager.getConnection()) {
+        // Alec: the connection checked is the first one of the pool
+        try ( PooledConnection conn = DBManager.acquire()) {
             System.out.println("JDBC connected to othello.db");
         } catch (SQLException e) {
             System.err.println("JDBC error during startup");
             e.printStackTrace();
             System.exit(1);
         }
+        // Alec: load the known users, so that their reconnections skip the database
+        try {
+            System.out.println(UserDAO.warmCache() + " users cached");
+        } catch (SQLException e) {
+            System.err.println("Could not load the users, they are read on demand");
+            e.printStackTrace();
+        }
         // End Alec 
 
         try {
             Server model = new Server();
             ServerConsole console = new ServerConsole(model);
             model.addObserver(console);
-            System.out.println("Server started");
+            // Alec: the transport is chosen with -Dothello.server.transport=thread|nio
+            System.out.println("Server started (" + model.getTransport() + " transport)");
             System.out.println("");
         } catch (IOException ex) {
             Logger.getLogger(ServerConsole.class.getName()).log(Level.SEVERE, null, ex);
@@ -0,0 +1,313 @@
+package othello.controller;
+
+import othello.model.Board;
+import othello.model.ColorToken;
+
+/**
+ * Author: Alec Waumans (2025)
+ * Iterative-deepening negamax search with alpha-beta pruning.
+ *
+ * <p>The search plays and takes back moves on its own copy of the board
+ * (see {@link Board#makeMove(int, ColorToken, long[])}), so it never copies
+ * the game. Moves are tried best first: the best move of the previous
+ * iteration at the root, the move stored in the transposition table
+ * elsewhere, then the squares with the highest positional weight.
+ * A game ends as soon as the player to move cannot play, like in
+ * {@link othello.model.Game}.
+ *
+ * <p>An instance is not thread-safe: one search per instance at a time. Several
+ * instances may share a transposition table, which is how
+ * {@link LazySmpSearch} runs helper searches on other threads.
+ */
+class AlphaBetaSearch {
+
+    // Score of a won game, before adding the final disc difference.
+    static final int WIN = 1_000_000;
+    private static final int INFINITY = 2 * WIN;
+    private static final int MOBILITY_WEIGHT = 8;
+    // The clock is read once every CHECK_INTERVAL + 1 nodes.
+    private static final int CHECK_INTERVAL = 1023;
+
+    private final Board board;
+    private final TranspositionTable table;
+    private final int squares;
+    private final int[] weights;
+
+    // Buffers per ply, allocated when the search first reaches that ply.
+    private final int[][] moves;
+    private final int[][] scores;
+    private final long[][] flips;
+
+    private long deadline;
+    private long nodes;
+    private boolean aborted;
+    private volatile boolean stopped;
+    private int rootBest;
+    private int score;
+    // 0 for a main search, the number of the helper otherwise.
+    private int helper;
+
+    /**
+     * Constructs a search working on the given board.
+     *
+     * @param board A board the search may modify, usually {@code game.copyBoard()}.
+     * @param table The transposition table, possibly shared with other searches.
+     */
+    AlphaBetaSearch(Board board, TranspositionTable table) {
+        this.board = board;
+        this.table = table;
+        this.squares = board.getSize() * board.getSize();
+        this.weights = weights(board.getSize());
+        this.moves = new int[squares + 1][];
+        this.scores = new int[squares + 1][];
+        this.flips = new long[squares + 1][];
+    }
+
+    /**
+     * Searches the best move of a color, one ply deeper at each iteration,
+     * until maxDepth, the end of the game or the deadline.
+     *
+     * @param colorToken The color to move.
+     * @param maxDepth The maximum depth in plies.
+     * @param deadlineNanos The {@link System#nanoTime()} at which to stop.
+     * @return the square of the best move found, or -1 if the color cannot play.
+     */
+    int search(ColorToken colorToken, int maxDepth, long deadlineNanos) {
+        this.deadline = deadlineNanos;
+        this.aborted = false;
+        this.nodes = 0;
+        this.score = 0;
+        allocate(0);
+
+        int count = board.listMoves(colorToken, moves[0]);
+        if (count == 0) {
+            return -1;
+        }
+        if (helper == 0) {
+            table.newSearch();
+        }
+        int best = moves[0][0];
+        int limit = Math.min(maxDepth, board.countEmpty());
+        for (int depth = 1 + (helper & 1); depth <= limit; depth++) {
+            int score = searchRoot(colorToken, depth, count, best);
+            if (aborted) {
+                break;
+            }
+            best = rootBest;
+            this.score = score;
+            if (Math.abs(score) >= WIN) {
+                break; // the result of the game is known
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Makes this search a helper of a parallel search: it starts one ply
+     * deeper every other helper and tries its root moves in another order, so
+     * the helpers fill the shared transposition table with different results.
+     *
+     * @param number The number of the helper, from 1.
+     */
+    void setHelper(int number) {
+        this.helper = number;
+    }
+
+    /**
+     * Asks the search to stop as soon as possible, from any thread. A stopped
+     * instance stays stopped, even if its search had not started yet.
+     */
+    void stop() {
+        stopped = true;
+    }
+
+    /**
+     * @return the score of the best move of the last completed iteration of
+     * the last search, for the color to move.
+     */
+    int getScore() {
+        return score;
+    }
+
+    /**
+     * @return the number of positions visited by the last search.
+     */
+    long getNodes() {
+        return nodes;
+    }
+
+    // Searches every root move at the given depth, trying first the previous best move.
+    private int searchRoot(ColorToken colorToken, int depth, int count, int first) {
+        int[] list = moves[0];
+        orderMoves(list, scores[0], count, first);
+        if (helper != 0) {
+            int swap = list[helper % count];
+            list[helper % count] = list[0];
+            list[0] = swap;
+        }
+        ColorToken adverse = opponent(colorToken);
+        int alpha = -INFINITY;
+        rootBest = list[0];
+        for (int i = 0; i < count; i++) {
+            board.makeMove(list[i], colorToken, flips[0]);
+            int score = -negamax(adverse, depth - 1, -INFINITY, -alpha, 1);
+            board.undoMove(list[i], colorToken, flips[0]);
+            if (aborted) {
+                return 0;
+            }
+            if (score > alpha) {
+                alpha = score;
+                rootBest = list[i];
+            }
+        }
+        return alpha;
+    }
+
+    // Value of the position for colorToken, searched depth plies deep.
+    private int negamax(ColorToken colorToken, int depth, int alpha, int beta, int ply) {
+        if ((++nodes & CHECK_INTERVAL) == 0 && (stopped || System.nanoTime() > deadline)) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        allocate(ply);
+        int[] list = moves[ply];
+        int count = board.listMoves(colorToken, list);
+        if (count == 0) {
+            return finalScore(colorToken);
+        }
+        ColorToken adverse = opponent(colorToken);
+        if (depth == 0) {
+            return evaluate(colorToken, adverse, count);
+        }
+
+        long hash = board.getHash(colorToken);
+        long entry = table.probe(hash);
+        int hashMove = -1;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int score = TranspositionTable.score(entry);
+                switch (TranspositionTable.bound(entry)) {
+                    case TranspositionTable.EXACT -> {
+                        return score;
+                    }
+                    case TranspositionTable.LOWER -> alpha = Math.max(alpha, score);
+                    default -> beta = Math.min(beta, score);
+                }
+                if (alpha >= beta) {
+                    return score;
+                }
+            }
+        }
+
+        int alphaStart = alpha;
+        orderMoves(list, scores[ply], count, hashMove);
+        int best = -INFINITY;
+        int bestMove = -1;
+        for (int i = 0; i < count; i++) {
+            board.makeMove(list[i], colorToken, flips[ply]);
+            int score = -negamax(adverse, depth - 1, -beta, -alpha, ply + 1);
+            board.undoMove(list[i], colorToken, flips[ply]);
+            if (aborted) {
+                return 0;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = list[i];
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        int bound = best <= alphaStart ? TranspositionTable.UPPER
+                : best >= beta ? TranspositionTable.LOWER
+                : TranspositionTable.EXACT;
+        table.store(hash, depth, bound, best, bestMove);
+        return best;
+    }
+
+    // Score of a finished game for colorToken: a win, a loss or a draw, by the disc difference.
+    private int finalScore(ColorToken colorToken) {
+        int difference = board.countDiscs(colorToken) - board.countDiscs(opponent(colorToken));
+        if (difference > 0) {
+            return WIN + difference;
+        } else if (difference < 0) {
+            return -WIN + difference;
+        }
+        return 0;
+    }
+
+    // Heuristic value for colorToken, which has mobility possible moves.
+    private int evaluate(ColorToken colorToken, ColorToken adverse, int mobility) {
+        int positional = board.weightedSum(colorToken, weights)
+                - board.weightedSum(adverse, weights);
+        return positional + MOBILITY_WEIGHT * (mobility - board.countMoves(adverse));
+    }
+
+    // Sorts the moves by decreasing weight, putting first in front when present.
+    private void orderMoves(int[] list, int[] keys, int count, int first) {
+        for (int i = 0; i < count; i++) {
+            int move = list[i];
+            int key = move == first ? Integer.MAX_VALUE : weights[move];
+            int j = i - 1;
+            while (j >= 0 && keys[j] < key) {
+                list[j + 1] = list[j];
+                keys[j + 1] = keys[j];
+                j--;
+            }
+            list[j + 1] = move;
+            keys[j + 1] = key;
+        }
+    }
+
+    private void allocate(int ply) {
+        if (moves[ply] == null) {
+            moves[ply] = new int[squares];
+            scores[ply] = new int[squares];
+            flips[ply] = new long[board.getWords()];
+        }
+    }
+
+    static ColorToken opponent(ColorToken colorToken) {
+        return colorToken == ColorToken.BLACK ? ColorToken.WHITE : ColorToken.BLACK;
+    }
+
+    /**
+     * Positional weight of every square of a board: corners are worth the most,
+     * the squares next to a corner give it away and are worth less than nothing,
+     * edges are stable and worth more than the inside.
+     *
+     * @param size The size of the board.
+     * @return the weight of each square {@code x * size + y}.
+     */
+    static int[] weights(int size) {
+        int[] weights = new int[size * size];
+        for (int x = 0; x < size; x++) {
+            for (int y = 0; y < size; y++) {
+                int fromEdgeX = Math.min(x, size - 1 - x);
+                int fromEdgeY = Math.min(y, size - 1 - y);
+                int weight;
+                if (fromEdgeX == 0 && fromEdgeY == 0) {
+                    weight = 100;  // corner
+                } else if (fromEdgeX == 1 && fromEdgeY == 1) {
+                    weight = -25;  // diagonal neighbour of a corner
+                } else if (fromEdgeX + fromEdgeY == 1) {
+                    weight = -10;  // edge neighbour of a corner
+                } else if (fromEdgeX == 0 || fromEdgeY == 0) {
+                    weight = 10;   // edge
+                } else if (fromEdgeX == 1 || fromEdgeY == 1) {
+                    weight = -2;   // next to an edge
+                } else {
+                    weight = 1;
+                }
+                weights[x * size + y] = weight;
+            }
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,171 @@
+package othello.controller;
+
+import java.util.Objects;
+import othello.model.Board;
+import othello.model.Game;
+
+/**
+ * Author: Alec Waumans (2025)
+ * Represents a strategy that searches the game tree to choose its moves.
+ *
+ * <p>The move is chosen by an iterative-deepening alpha-beta search on a copy
+ * of the board, stopped by a time budget per move so that the CPU answers
+ * within the round-trip of a PLAY message. The searches of every game share
+ * one transposition table, so positions already searched are not searched
+ * again from one move to the next. With more than one thread, the search runs
+ * in parallel (see {@link LazySmpSearch}).
+ *
+ * <p>Positions of the opening book set by -Dothello.book are played without
+ * searching (see {@link OpeningBook}). Once few squares are empty, the strategy first tries to solve the game
+ * exactly (see {@link EndgameSolver}) within half of its time budget, and
+ * falls back to the search if the game is not solved by then.
+ */
+public class AlphaBetaStrategy implements Strategy {
+
+    /** Default thinking time per move, in milliseconds. */
+    public static final long DEFAULT_TIME_MILLIS = 300;
+
+    /** Default maximum search depth, in plies. */
+    public static final int DEFAULT_MAX_DEPTH = 64;
+
+    /**
+     * Default number of threads searching a move of one game. Set for the
+     * whole server with -Dothello.search.gameThreads, 1 by default.
+     */
+    public static final int DEFAULT_THREADS = Math.max(1,
+            Integer.getInteger("othello.search.gameThreads", 1));
+
+    /**
+     * Default number of empty squares from which the game is solved exactly.
+     * Set for the whole server with -Dothello.search.endgameEmpties, 0 turns
+     * the solver off.
+     */
+    public static final int DEFAULT_ENDGAME_EMPTIES = Math.max(0,
+            Integer.getInteger("othello.search.endgameEmpties", EndgameSolver.DEFAULT_EMPTIES));
+
+    /** Size of the shared transposition table, in megabytes. */
+    public static final int TABLE_MEGABYTES = 64;
+
+    // Created with the first search strategy, shared by every game of the server.
+    private static final TranspositionTable SHARED_TABLE = new TranspositionTable(TABLE_MEGABYTES);
+
+    private final long timeMillis;
+    private final int maxDepth;
+    private final int threads;
+    private final int endgameEmpties;
+    private final TranspositionTable table;
+
+    /**
+     * Constructs a search strategy with the default time budget, depth and
+     * number of threads.
+     */
+    public AlphaBetaStrategy() {
+        this(DEFAULT_THREADS);
+    }
+
+    /**
+     * Constructs a search strategy with the default time budget and depth.
+     *
+     * @param threads The number of threads searching each move; capped by
+     * the size of the shared search pool.
+     * @throws IllegalArgumentException If the number of threads is not positive.
+     */
+    public AlphaBetaStrategy(int threads) {
+        this(DEFAULT_TIME_MILLIS, DEFAULT_MAX_DEPTH, threads);
+    }
+
+    /**
+     * Constructs a search strategy.
+     *
+     * @param timeMillis The time budget per move, in milliseconds.
+     * @param maxDepth The maximum search depth, in plies.
+     * @param threads The number of threads searching each move.
+     * @throws IllegalArgumentException If the budget, the depth or the number
+     * of threads is not positive.
+     */
+    public AlphaBetaStrategy(long timeMillis, int maxDepth, int threads) {
+        this(timeMillis, maxDepth, threads, SHARED_TABLE);
+    }
+
+    /**
+     * Constructs a search strategy using its own transposition table.
+     *
+     * @param timeMillis The time budget per move, in milliseconds.
+     * @param maxDepth The maximum search depth, in plies.
+     * @param threads The number of threads searching each move.
+     * @param table The transposition table of the searches.
+     * @throws IllegalArgumentException If the budget, the depth or the number
+     * of threads is not positive.
+     */
+    public AlphaBetaStrategy(long timeMillis, int maxDepth, int threads,
+            TranspositionTable table) {
+        this(timeMillis, maxDepth, threads, DEFAULT_ENDGAME_EMPTIES, table);
+    }
+
+    /**
+     * Constructs a search strategy using its own transposition table and
+     * endgame threshold.
+     *
+     * @param timeMillis The time budget per move, in milliseconds.
+     * @param maxDepth The maximum search depth, in plies.
+     * @param threads The number of threads searching each move.
+     * @param endgameEmpties The number of empty squares from which the game
+     * is solved exactly, 0 to never solve it.
+     * @param table The transposition table of the searches.
+     * @throws IllegalArgumentException If the budget, the depth or the number
+     * of threads is not positive, or if the threshold is negative.
+     */
+    public AlphaBetaStrategy(long timeMillis, int maxDepth, int threads,
+            int endgameEmpties, TranspositionTable table) {
+        Objects.requireNonNull(table, "transposition table not found");
+        if (timeMillis <= 0 || maxDepth <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("time budget, depth and threads must be positive: "
+                    + timeMillis + " ms, " + maxDepth + " plies, " + threads + " threads");
+        }
+        if (endgameEmpties < 0) {
+            throw new IllegalArgumentException("endgame threshold must not be negative: "
+                    + endgameEmpties);
+        }
+        this.timeMillis = timeMillis;
+        this.maxDepth = maxDepth;
+        this.threads = threads;
+        this.endgameEmpties = endgameEmpties;
+        this.table = table;
+    }
+
+    /**
+     * Plays the move of the opening book, or of the exact solution when the
+     * game is solved in time, otherwise the best move found by the search
+     * within the time budget.
+     *
+     * @param game The game instance to play.
+     */
+    @Override
+    public void play(Game game) {
+        long start = System.nanoTime();
+        long deadline = start + timeMillis * 1_000_000L;
+        Board board = game.copyBoard();
+        int square = OpeningBook.getDefault().lookup(board, game.getCurrentPlayer());
+        if (square < 0 && board.countEmpty() <= endgameEmpties) {
+            EndgameSolver solver = new EndgameSolver(board);
+            if (solver.solve(game.getCurrentPlayer(), start + timeMillis * 500_000L)) {
+                square = solver.getBestMove();
+                if (square < 0) {
+                    return;
+                }
+            }
+        }
+        if (square < 0) {
+            square = threads > 1
+                    ? LazySmpSearch.search(game, table, threads, maxDepth, deadline)
+                    : new AlphaBetaSearch(board, table)
+                            .search(game.getCurrentPlayer(), maxDepth, deadline);
+        }
+        if (square < 0) {
+            return;
+        }
+        int size = game.getSize();
+        Command command = new OthelloCompute(game, square / size, square % size, false);
+        command.execute();
+    }
+}
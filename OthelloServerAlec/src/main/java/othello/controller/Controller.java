@@ -1,9 +1,12 @@
 package othello.controller;
 
+import java.util.function.IntConsumer;
 import othello.model.ColorToken;
 import othello.model.Game;
+import othello.model.GameReplay;
 import othello.model.GameState;
 import othello.model.State;
+import othello.model.StateDelta;
 
 /**
  * @author : Sami EL YAGHMOURI (2024) & Alec Waumans (2025) The controller class
@@ -39,6 +42,21 @@ public class Controller {
         this.model = new Game(size);
         model.initialize();
     }
+    /**
+     * @author : Alec Waumans (2025)
+     * Gives each event of the game (move, surrender, undo, redo) to a log,
+     * as coded by {@link GameReplay}. Call it after {@link #initialize(int)}.
+     *
+     * @param log Receives the events, on the thread playing them.
+     */
+    public void setMoveLog(IntConsumer log) {
+        model.addObserver(evt -> {
+            if (GameReplay.PROPERTY.equals(evt.getPropertyName())) {
+                log.accept((Integer) evt.getNewValue());
+            }
+        });
+    }
+
     /**
      * @author : Alec Waumans (2025)
      * @return the current state of the game. 
@@ -46,6 +64,15 @@ public class Controller {
     public State getState() {
         return model.getCurrentState();
     }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * @return the changes of the game since the previous call, see
+     * {@link Game#takeChanges()}.
+     */
+    public StateDelta takeChanges() {
+        return model.takeChanges();
+    }
     
     /**
      * @author : Alec Waumans (2025)
@@ -80,23 +107,55 @@ public class Controller {
     }
 
     /**
-     * @author : Sami EL YAGHMOURI (2024)
+     * @author : Sami EL YAGHMOURI (2024) & Alec Waumans (2025)
      * Computes a move in the game.
+     * Alec : the move of the player and the answer of the CPU are now also
+     * available apart, see play and playCpu.
      *
      * @param x The x-coordinate of the move.
      * @param y The y-coordinate of the move.
      * @param surrender Indicates if the move is a surrender.
      */
     public void compute(int x, int y, boolean surrender) {
+        play(x, y, surrender);
+        if (isCpuTurn()) {
+            playCpu();
+        }
+    }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * Plays the move of the player only, so that the server can send it
+     * before the CPU answers (see {@link #playCpu()}).
+     *
+     * @param x The x-coordinate of the move.
+     * @param y The y-coordinate of the move.
+     * @param surrender Indicates if the move is a surrender.
+     */
+    public void play(int x, int y, boolean surrender) {
         Command command = surrender
                 ? new OthelloCompute(model, true)
                 : new OthelloCompute(model, x, y, false);
 
         command.execute();
+    }
 
-        if (model.getGameState() == GameState.RUNNING
+    /**
+     * @author : Alec Waumans (2025)
+     * @return true if the game goes on and the CPU must play.
+     */
+    public boolean isCpuTurn() {
+        return model.getGameState() == GameState.RUNNING
                 && strategy != null
-                && model.getCurrentPlayer() == ColorToken.WHITE) {
+                && model.getCurrentPlayer() == ColorToken.WHITE;
+    }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * Plays the move of the CPU, if it is its turn.
+     */
+    public void playCpu() {
+        if (isCpuTurn()) {
             strategy.play(model);
         }
     }
@@ -128,15 +187,29 @@ public class Controller {
     }
 
     /**
-     * @author : Sami EL YAGHMOURI (2024)
+     * @author : Sami EL YAGHMOURI (2024) & Alec Waumans (2025)
      * Sets the strategy for the game.
+     * Alec : the smart CPU now searches the game tree (AlphaBetaStrategy)
+     * instead of taking the greediest move (PseudoSmartStrategy).
      *
      * @param smart Indicates if the strategy is smart.
      */
     public void setStrategy(boolean smart) {
+        setStrategy(smart, AlphaBetaStrategy.DEFAULT_THREADS);
+    }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * Sets the strategy for the game, with the number of threads the smart
+     * CPU may use to search its moves.
+     *
+     * @param smart Indicates if the strategy is smart.
+     * @param threads The number of threads of the smart CPU.
+     */
+    public void setStrategy(boolean smart, int threads) {
         //System.out.println(smart);
         if (smart) {
-            strategy = new PseudoSmartStrategy();
+            strategy = new AlphaBetaStrategy(threads);
         } else {
             strategy = new DumbStrategy();
         }
@@ -0,0 +1,201 @@
+package othello.controller;
+
+import othello.model.Board;
+import othello.model.ColorToken;
+
+/**
+ * Author: Alec Waumans (2025)
+ * Perfect-play solver for the end of a game.
+ *
+ * <p>Once few squares remain, the solver searches every line to the end of
+ * the game and returns the exact final disc difference, instead of the
+ * heuristic score of {@link AlphaBetaSearch}. A game ends as soon as the
+ * player to move cannot play, like in {@link othello.model.Game}.
+ *
+ * <p>Moves are ordered fastest-first while many squares are empty: the move
+ * leaving the opponent the fewest replies comes first. Near the very end,
+ * when counting replies costs more than it saves, moves are ordered by
+ * parity: the board is cut in four quadrants and moves in a quadrant with an
+ * odd number of empty squares come first, so the solver keeps the last move
+ * of each region.
+ *
+ * <p>An instance is not thread-safe.
+ */
+public class EndgameSolver {
+
+    /** Default number of empty squares from which the CPU solves the game. */
+    public static final int DEFAULT_EMPTIES = 12;
+
+    // Below this many empty squares, moves are ordered by parity only.
+    private static final int FASTEST_FIRST_EMPTIES = 7;
+    private static final int CHECK_INTERVAL = 1023;
+
+    private final Board board;
+    private final int squares;
+    // Quadrant (0 to 3) of each square.
+    private final int[] quadrant;
+
+    private final int[][] moves;
+    private final int[][] keys;
+    private final long[][] flips;
+
+    private int empties;
+    // Bit q is set when quadrant q holds an odd number of empty squares.
+    private int parity;
+    private long deadline;
+    private long nodes;
+    private boolean aborted;
+    private int bestMove;
+    private int score;
+
+    /**
+     * Constructs a solver working on the given board.
+     *
+     * @param board A board the solver may modify, usually {@code game.copyBoard()}.
+     */
+    public EndgameSolver(Board board) {
+        this.board = board;
+        int size = board.getSize();
+        this.squares = size * size;
+        this.quadrant = new int[squares];
+        for (int square = 0; square < squares; square++) {
+            int x = square / size;
+            int y = square % size;
+            quadrant[square] = (x < size / 2 ? 0 : 2) + (y < size / 2 ? 0 : 1);
+        }
+        this.moves = new int[squares + 1][];
+        this.keys = new int[squares + 1][];
+        this.flips = new long[squares + 1][];
+    }
+
+    /**
+     * Solves the game for the player to move.
+     *
+     * @param colorToken The color to move.
+     * @param deadlineNanos The {@link System#nanoTime()} at which to give up.
+     * @return true if the game was solved, false if the deadline came first.
+     */
+    public boolean solve(ColorToken colorToken, long deadlineNanos) {
+        this.deadline = deadlineNanos;
+        this.aborted = false;
+        this.nodes = 0;
+        this.bestMove = -1;
+        this.empties = board.countEmpty();
+        this.parity = 0;
+        for (int square = 0; square < squares; square++) {
+            if (board.isEmpty(square)) {
+                parity ^= 1 << quadrant[square];
+            }
+        }
+        this.score = solve(colorToken, -squares - 1, squares + 1, 0);
+        return !aborted;
+    }
+
+    /**
+     * @return the best move found by the last solve, or -1 if the player
+     * cannot play.
+     */
+    public int getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * @return the final disc difference for the player to move, with perfect
+     * play from both sides, found by the last solve.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * @return the number of positions visited by the last solve.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    // Exact final disc difference for colorToken, within the window ]alpha, beta[.
+    private int solve(ColorToken colorToken, int alpha, int beta, int ply) {
+        if ((++nodes & CHECK_INTERVAL) == 0 && System.nanoTime() > deadline) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+        ColorToken adverse = AlphaBetaSearch.opponent(colorToken);
+        allocate(ply);
+        int[] list = moves[ply];
+        int count = board.listMoves(colorToken, list);
+        if (count == 0) {
+            return board.countDiscs(colorToken) - board.countDiscs(adverse);
+        }
+
+        orderMoves(colorToken, adverse, list, keys[ply], flips[ply], count);
+        int best = -squares - 1;
+        for (int i = 0; i < count; i++) {
+            int move = list[i];
+            play(move, colorToken, flips[ply]);
+            int value = -solve(adverse, -beta, -alpha, ply + 1);
+            takeBack(move, colorToken, flips[ply]);
+            if (aborted) {
+                return 0;
+            }
+            if (value > best) {
+                best = value;
+                if (ply == 0) {
+                    bestMove = move;
+                }
+                if (value > alpha) {
+                    alpha = value;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    // Sorts the moves: fewest replies first while many squares are empty, odd quadrants first.
+    private void orderMoves(ColorToken colorToken, ColorToken adverse,
+            int[] list, int[] order, long[] buffer, int count) {
+        boolean fastestFirst = empties > FASTEST_FIRST_EMPTIES;
+        for (int i = 0; i < count; i++) {
+            int move = list[i];
+            int key = (parity >>> quadrant[move]) & 1;
+            if (fastestFirst) {
+                board.makeMove(move, colorToken, buffer);
+                key -= 2 * board.countMoves(adverse);
+                board.undoMove(move, colorToken, buffer);
+            }
+            int j = i - 1;
+            while (j >= 0 && order[j] < key) {
+                list[j + 1] = list[j];
+                order[j + 1] = order[j];
+                j--;
+            }
+            list[j + 1] = move;
+            order[j + 1] = key;
+        }
+    }
+
+    private void play(int move, ColorToken colorToken, long[] buffer) {
+        board.makeMove(move, colorToken, buffer);
+        empties--;
+        parity ^= 1 << quadrant[move];
+    }
+
+    private void takeBack(int move, ColorToken colorToken, long[] buffer) {
+        board.undoMove(move, colorToken, buffer);
+        empties++;
+        parity ^= 1 << quadrant[move];
+    }
+
+    private void allocate(int ply) {
+        if (moves[ply] == null) {
+            moves[ply] = new int[squares];
+            keys[ply] = new int[squares];
+            flips[ply] = new long[board.getWords()];
+        }
+    }
+}
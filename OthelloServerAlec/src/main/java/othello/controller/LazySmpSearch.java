@@ -0,0 +1,65 @@
+package othello.controller;
+
+import java.util.concurrent.ForkJoinPool;
+import othello.model.ColorToken;
+import othello.model.Game;
+
+/**
+ * Author: Alec Waumans (2025)
+ * Parallel search by Lazy SMP: helper searches run the same iterative
+ * deepening as the main search, on their own copy of the board and on the
+ * threads of a pool shared by the whole server, and share the transposition
+ * table with it. The helpers do not return anything: they fill the table, so
+ * the main search finds more cutoffs and better moves to try first and goes
+ * deeper within the same time budget.
+ *
+ * <p>The main search runs on the calling thread, so a busy pool only makes
+ * the search weaker, never slower.
+ */
+final class LazySmpSearch {
+
+    /**
+     * Number of threads of the shared pool, and maximum number of threads of
+     * one search. Set with -Dothello.search.threads, all the cores by default.
+     */
+    static final int MAX_THREADS = Math.max(1,
+            Integer.getInteger("othello.search.threads", Runtime.getRuntime().availableProcessors()));
+
+    // Created by the first parallel search only.
+    private static class PoolHolder {
+        private static final ForkJoinPool POOL = new ForkJoinPool(MAX_THREADS);
+    }
+
+    private LazySmpSearch() {
+    }
+
+    /**
+     * Searches the best move of the player to move of a game.
+     *
+     * @param game The game; it is only copied, never modified.
+     * @param table The transposition table shared by the searches.
+     * @param threads The number of searches to run, the main one included.
+     * @param maxDepth The maximum depth in plies.
+     * @param deadlineNanos The {@link System#nanoTime()} at which to stop.
+     * @return the square of the best move found, or -1 if the player cannot play.
+     */
+    static int search(Game game, TranspositionTable table, int threads,
+            int maxDepth, long deadlineNanos) {
+        ColorToken colorToken = game.getCurrentPlayer();
+        AlphaBetaSearch[] helpers = new AlphaBetaSearch[Math.min(threads, MAX_THREADS) - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            AlphaBetaSearch helper = new AlphaBetaSearch(game.copyBoard(), table);
+            helper.setHelper(i + 1);
+            helpers[i] = helper;
+            PoolHolder.POOL.execute(() -> helper.search(colorToken, maxDepth, deadlineNanos));
+        }
+        try {
+            return new AlphaBetaSearch(game.copyBoard(), table)
+                    .search(colorToken, maxDepth, deadlineNanos);
+        } finally {
+            for (AlphaBetaSearch helper : helpers) {
+                helper.stop();
+            }
+        }
+    }
+}
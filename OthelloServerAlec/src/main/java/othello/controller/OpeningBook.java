@@ -0,0 +1,196 @@
+package othello.controller;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import othello.model.Board;
+import othello.model.ColorToken;
+import othello.model.Symmetry;
+
+/**
+ * Author: Alec Waumans (2025)
+ * Read-only opening book: the best move of positions searched in advance by
+ * {@link OpeningBookBuilder}.
+ *
+ * <p>The file is memory-mapped and searched in place: the book is never
+ * loaded on the heap, so opening it costs the same whatever its size, and
+ * the operating system shares its pages between the games.
+ *
+ * <p>File format, big-endian: a header of {@value #HEADER_BYTES} bytes (the
+ * magic number, the format version and the number of entries, as ints, and
+ * one unused int), then the entries sorted by unsigned key. An entry is
+ * {@value #ENTRY_BYTES} bytes: the canonical hash of the position (see
+ * {@link Board#getCanonicalHash(ColorToken)}) as a long, the move in the
+ * canonical position as an int and the score of the move as an int.
+ *
+ * <p>An instance is thread-safe: lookups only use absolute reads.
+ */
+public class OpeningBook {
+
+    /** First int of a book file. */
+    public static final int MAGIC = 0x4F54424B; // "OTBK"
+    /** Version of the file format. */
+    public static final int VERSION = 1;
+    /** Size of the header, in bytes. */
+    public static final int HEADER_BYTES = 16;
+    /** Size of an entry, in bytes. */
+    public static final int ENTRY_BYTES = 16;
+
+    // Book of -Dothello.book, read on first use.
+    private static final class DefaultHolder {
+
+        static final OpeningBook BOOK = load(System.getProperty("othello.book"));
+
+        private static OpeningBook load(String file) {
+            if (file == null || file.isBlank()) {
+                return EMPTY;
+            }
+            try {
+                return open(Paths.get(file));
+            } catch (IOException | IllegalArgumentException e) {
+                Logger.getLogger(OpeningBook.class.getName())
+                        .log(Level.WARNING, "Opening book not loaded: " + file, e);
+                return EMPTY;
+            }
+        }
+    }
+
+    private static final OpeningBook EMPTY = new OpeningBook(ByteBuffer.allocate(0), 0);
+
+    private final ByteBuffer buffer;
+    private final int entries;
+
+    private OpeningBook(ByteBuffer buffer, int entries) {
+        this.buffer = buffer;
+        this.entries = entries;
+    }
+
+    /**
+     * Opens a book file.
+     *
+     * @param file The book file.
+     * @return the book, mapped in memory.
+     * @throws IOException If the file cannot be read.
+     * @throws IllegalArgumentException If the file is not a book of this version.
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("not an opening book: " + file);
+            }
+            // the mapping stays valid once the channel is closed
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IllegalArgumentException("not an opening book of version "
+                        + VERSION + ": " + file);
+            }
+            int entries = buffer.getInt(8);
+            if (entries < 0 || HEADER_BYTES + (long) entries * ENTRY_BYTES != size) {
+                throw new IllegalArgumentException("truncated opening book: " + file);
+            }
+            return new OpeningBook(buffer, entries);
+        }
+    }
+
+    /**
+     * @return the book set by -Dothello.book, empty if there is none.
+     */
+    public static OpeningBook getDefault() {
+        return DefaultHolder.BOOK;
+    }
+
+    /**
+     * @return the number of positions in the book.
+     */
+    public int size() {
+        return entries;
+    }
+
+    /**
+     * Looks up the move of a position.
+     *
+     * @param board The board.
+     * @param toMove The color to move.
+     * @return the square of the book move, or -1 if the position is not in
+     * the book or its move is not legal.
+     */
+    public int lookup(Board board, ColorToken toMove) {
+        if (entries == 0) {
+            return -1;
+        }
+        int symmetry = board.getCanonicalSymmetry(toMove);
+        int index = find(board.getHash(toMove, symmetry));
+        if (index < 0) {
+            return -1;
+        }
+        int canonical = buffer.getInt(offset(index) + 8);
+        int size = board.getSize();
+        if (canonical < 0 || canonical >= size * size) {
+            return -1;
+        }
+        int square = Symmetry.revert(size, symmetry, canonical);
+        // a hash collision must not make the CPU play an illegal move
+        int[] moves = new int[size * size];
+        int count = board.listMoves(toMove, moves);
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == square) {
+                return square;
+            }
+        }
+        return -1;
+    }
+
+    // Index of the entry of a key, or -1 if there is none.
+    private int find(long key) {
+        int low = 0;
+        int high = entries - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int cmp = Long.compareUnsigned(buffer.getLong(offset(middle)), key);
+            if (cmp < 0) {
+                low = middle + 1;
+            } else if (cmp > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    private static int offset(int index) {
+        return HEADER_BYTES + index * ENTRY_BYTES;
+    }
+
+    /**
+     * Writes a book file from entries sorted by unsigned key, without duplicates.
+     *
+     * @param file The file to write.
+     * @param keys The canonical hashes of the positions.
+     * @param moves The canonical move of each position.
+     * @param scores The score of each move.
+     * @param count The number of entries.
+     * @throws IOException If the file cannot be written.
+     */
+    static void write(Path file, long[] keys, int[] moves, int[] scores, int count)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + count * ENTRY_BYTES);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(0);
+        for (int i = 0; i < count; i++) {
+            buffer.putLong(keys[i]).putInt(moves[i]).putInt(scores[i]);
+        }
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+}
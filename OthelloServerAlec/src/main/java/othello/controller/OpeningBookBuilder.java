@@ -0,0 +1,160 @@
+package othello.controller;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import othello.model.Board;
+import othello.model.ColorToken;
+import othello.model.Game;
+import othello.model.Symmetry;
+
+/**
+ * Author: Alec Waumans (2025)
+ * Builds an {@link OpeningBook} offline, by self-play.
+ *
+ * <p>The builder plays games from the starting position of a board size. The
+ * first time a position is reached, its best move is searched with
+ * {@link AlphaBetaSearch} and recorded under its canonical hash; the game
+ * then goes on with that move, or with a random move from time to time so
+ * that the games spread over the openings. Only the first plies of each game
+ * go in the book.
+ *
+ * <p>Usage: {@code OpeningBookBuilder <size> <games> <plies> <millis> <file> [seed]},
+ * for example {@code OpeningBookBuilder 8 2000 10 500 book8.bin}, then start the
+ * server with {@code -Dothello.book=book8.bin}.
+ */
+public final class OpeningBookBuilder {
+
+    // Probability of playing a random move instead of the best one.
+    private static final double VARIETY = 0.25;
+
+    private final int size;
+    private final int plies;
+    private final long timeMillis;
+    private final SplittableRandom random;
+    private final TranspositionTable table = new TranspositionTable(AlphaBetaStrategy.TABLE_MEGABYTES);
+    // canonical hash -> {canonical move, score}
+    private final Map<Long, int[]> book = new HashMap<>();
+
+    /**
+     * Constructs a builder.
+     *
+     * @param size The size of the board.
+     * @param plies The number of plies of each game recorded in the book.
+     * @param timeMillis The search time per position, in milliseconds.
+     * @param seed The seed of the random moves.
+     * @throws IllegalArgumentException If the number of plies or the time is
+     * not positive.
+     */
+    public OpeningBookBuilder(int size, int plies, long timeMillis, long seed) {
+        if (plies <= 0 || timeMillis <= 0) {
+            throw new IllegalArgumentException("plies and time must be positive: "
+                    + plies + " plies, " + timeMillis + " ms");
+        }
+        this.size = size;
+        this.plies = plies;
+        this.timeMillis = timeMillis;
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Plays one game and records its new positions.
+     */
+    public void playGame() {
+        Game game = new Game(size);
+        ColorToken toMove = game.getCurrentPlayer();
+        Board board = game.copyBoard();
+        long[] flips = new long[board.getWords()];
+        int[] moves = new int[size * size];
+        // the search plays on the board and takes its moves back
+        AlphaBetaSearch search = new AlphaBetaSearch(board, table);
+        for (int ply = 0; ply < plies; ply++) {
+            int count = board.listMoves(toMove, moves);
+            if (count == 0) {
+                return;
+            }
+            int symmetry = board.getCanonicalSymmetry(toMove);
+            long key = board.getHash(toMove, symmetry);
+            int[] entry = book.get(key);
+            if (entry == null) {
+                int best = search.search(toMove, AlphaBetaStrategy.DEFAULT_MAX_DEPTH,
+                        System.nanoTime() + timeMillis * 1_000_000L);
+                entry = new int[]{Symmetry.apply(size, symmetry, best), search.getScore()};
+                book.put(key, entry);
+            }
+            int move = random.nextDouble() < VARIETY
+                    ? moves[random.nextInt(count)]
+                    : Symmetry.revert(size, symmetry, entry[0]);
+            board.makeMove(move, toMove, flips);
+            toMove = AlphaBetaSearch.opponent(toMove);
+        }
+    }
+
+    /**
+     * @return the number of positions recorded.
+     */
+    public int size() {
+        return book.size();
+    }
+
+    /**
+     * Writes the book file.
+     *
+     * @param file The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(Path file) throws IOException {
+        int count = book.size();
+        long[] keys = new long[count];
+        int i = 0;
+        for (long key : book.keySet()) {
+            keys[i++] = key;
+        }
+        // sort by unsigned value: flipping the sign bit keeps the signed sort
+        for (i = 0; i < count; i++) {
+            keys[i] ^= Long.MIN_VALUE;
+        }
+        Arrays.sort(keys);
+        int[] moves = new int[count];
+        int[] scores = new int[count];
+        for (i = 0; i < count; i++) {
+            keys[i] ^= Long.MIN_VALUE;
+            int[] entry = book.get(keys[i]);
+            moves[i] = entry[0];
+            scores[i] = entry[1];
+        }
+        OpeningBook.write(file, keys, moves, scores, count);
+    }
+
+    /**
+     * Builds a book file.
+     *
+     * @param args size, games, plies, search time per position in
+     * milliseconds, output file and optional seed.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 5) {
+            System.err.println("Usage: OpeningBookBuilder <size> <games> <plies> <millis> <file> [seed]");
+            System.exit(1);
+        }
+        int size = Integer.parseInt(args[0]);
+        int games = Integer.parseInt(args[1]);
+        OpeningBookBuilder builder = new OpeningBookBuilder(size,
+                Integer.parseInt(args[2]), Long.parseLong(args[3]),
+                args.length > 5 ? Long.parseLong(args[5]) : 0L);
+        for (int game = 1; game <= games; game++) {
+            builder.playGame();
+            if (game % 100 == 0 || game == games) {
+                System.out.println(game + " games, " + builder.size() + " positions");
+            }
+        }
+        Path file = Paths.get(args[4]);
+        builder.write(file);
+        System.out.println("Opening book written to " + file.toAbsolutePath());
+    }
+}
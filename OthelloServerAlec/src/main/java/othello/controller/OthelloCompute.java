@@ -27,7 +27,7 @@ public class OthelloCompute implements Command{
      */
     public OthelloCompute(Game model, int x, int y, boolean surrender) {
         this.model = model;
-        this.position = new Position(x, y);
+        this.position = Position.of(x, y);
         this.surrender = surrender;
     }
 
@@ -0,0 +1,156 @@
+package othello.controller;
+
+import java.util.Arrays;
+
+/**
+ * Author: Alec Waumans (2025)
+ * Fixed-size transposition table shared by the search strategies.
+ *
+ * <p>An entry is two longs in one {@code long[]}: the packed data, and the
+ * position hash XORed with that data. A reader only accepts an entry whose
+ * two halves match its hash, so concurrent searches can read and write the
+ * table without locks: an entry torn by two writers is simply a miss.
+ *
+ * <p>The data packs the score (bits 0-31), the best move plus one (bits
+ * 32-39, 0 when there is none), the depth (bits 40-47), the bound (bits
+ * 48-49) and the generation of the search that stored it (bits 50-57).
+ *
+ * <p>Entries go by buckets of two: the first slot keeps the deepest result,
+ * unless it was stored by an older search; the second slot always takes the
+ * latest result.
+ */
+public class TranspositionTable {
+
+    /** The score is exact. */
+    public static final int EXACT = 1;
+    /** The score is a lower bound (the search failed high). */
+    public static final int LOWER = 2;
+    /** The score is an upper bound (the search failed low). */
+    public static final int UPPER = 3;
+
+    // Longs per slot and slots per bucket.
+    private static final int SLOT = 2;
+    private static final int BUCKET = 2 * SLOT;
+
+    private final long[] entries;
+    private final int bucketMask;
+    private volatile int generation;
+
+    /**
+     * Constructs a table using at most the given memory.
+     *
+     * @param megabytes The size of the table, in megabytes.
+     * @throws IllegalArgumentException If the size is not between 1 and 1024.
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1 || megabytes > 1024) {
+            throw new IllegalArgumentException("size of the transposition table "
+                    + "must be between 1 and 1024 MB: " + megabytes);
+        }
+        // largest power of two number of buckets fitting in the size
+        long buckets = Long.highestOneBit(megabytes * (1L << 20) / (BUCKET * Long.BYTES));
+        this.entries = new long[(int) (buckets * BUCKET)];
+        this.bucketMask = (int) buckets - 1;
+    }
+
+    /**
+     * Starts a new search: older entries become the first to be replaced.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * Clears every entry.
+     */
+    public void clear() {
+        Arrays.fill(entries, 0L);
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param hash The hash of the position.
+     * @return the packed data of the position, or 0 if it is not in the table.
+     */
+    public long probe(long hash) {
+        int bucket = bucketOf(hash);
+        for (int slot = bucket; slot < bucket + BUCKET; slot += SLOT) {
+            long data = entries[slot];
+            if (data != 0 && (entries[slot + 1] ^ data) == hash) {
+                return data;
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Stores the result of a search.
+     *
+     * @param hash The hash of the position.
+     * @param depth The depth searched, between 0 and 255.
+     * @param bound {@link #EXACT}, {@link #LOWER} or {@link #UPPER}.
+     * @param score The score found.
+     * @param move The best move found, or -1 if there is none.
+     */
+    public void store(long hash, int depth, int bound, int score, int move) {
+        int current = generation;
+        long data = (score & 0xFFFFFFFFL)
+                | ((long) (move + 1) & 0xFF) << 32
+                | ((long) Math.min(depth, 0xFF)) << 40
+                | ((long) bound) << 48
+                | ((long) current) << 50;
+
+        int bucket = bucketOf(hash);
+        int slot = bucket + SLOT;
+        long first = entries[bucket];
+        if ((entries[bucket + 1] ^ first) == hash
+                || depth >= depth(first)
+                || generation(first) != current) {
+            slot = bucket;
+        }
+        entries[slot] = data;
+        entries[slot + 1] = hash ^ data;
+    }
+
+    /**
+     * @param data Packed data returned by {@link #probe(long)}.
+     * @return the score stored.
+     */
+    public static int score(long data) {
+        return (int) data;
+    }
+
+    /**
+     * @param data Packed data returned by {@link #probe(long)}.
+     * @return the best move stored, or -1 if there is none.
+     */
+    public static int move(long data) {
+        return (int) ((data >>> 32) & 0xFF) - 1;
+    }
+
+    /**
+     * @param data Packed data returned by {@link #probe(long)}.
+     * @return the depth searched.
+     */
+    public static int depth(long data) {
+        return (int) ((data >>> 40) & 0xFF);
+    }
+
+    /**
+     * @param data Packed data returned by {@link #probe(long)}.
+     * @return the kind of bound of the score.
+     */
+    public static int bound(long data) {
+        return (int) ((data >>> 48) & 0x3);
+    }
+
+    private static int generation(long data) {
+        return (int) ((data >>> 50) & 0xFF);
+    }
+
+    // First long of the bucket of a hash; the high bits select it.
+    private int bucketOf(long hash) {
+        return ((int) (hash >>> 32) & bucketMask) * BUCKET;
+    }
+}
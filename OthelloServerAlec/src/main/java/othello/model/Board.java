@@ -3,16 +3,65 @@ package othello.model;
 import java.util.*;
 
 /**
- * @author : Sami EL YAGHMOURI (2024) 
- * Represents the game
- * board for Othello.
+ * @author : Sami EL YAGHMOURI (2024) & Alec Waumans (2025)
+ * Represents the game board for Othello.
+ *
+ * <p>Alec : the board is stored as bitboards. Square {@code (x, y)} is the bit
+ * {@code x * sizeBoard + y}, and every color owns {@code words} longs, so an
+ * 8x8 board fits in two longs and a 15x15 board in two arrays of four words.
+ * Possible moves are generated with shift-and-mask flood fills over the eight
+ * directions instead of walking {@link Position} objects ray by ray.
+ *
+ * <p>Alec : the possible moves of both colors are also kept up to date
+ * incrementally. A disc change can only affect empty squares lying on one of
+ * the four lines through that disc, so after each change only the frontier
+ * squares (empty squares next to a disc) on those lines are tested again.
+ * {@link Constants#validateMoves} cross-checks this against a full rescan.
+ *
+ * <p>Alec : the board also keeps its Zobrist hash (see {@link Zobrist}) up to
+ * date on every change, for the transposition table of the search.
  */
 public class Board {
 
-    private final Map<Position, ColorToken> whiteCase;
-    private final Map<Position, ColorToken> blackCase;
-    //Also give the number of point won with this move
-    private final Map<Position, ArrayList<Position>> possibleMove;
+    // Index of each color in discs[]: follows ColorToken.ordinal().
+    private static final int BLACK = 0;
+    private static final int WHITE = 1;
+
+    // The eight directions as (deltaX, deltaY).
+    private static final int[] DIR_X = {0, 0, 1, -1, 1, -1, 1, -1};
+    private static final int[] DIR_Y = {1, -1, 0, 0, 1, -1, -1, 1};
+
+    private final long[][] discs;
+    // Interned position of each square.
+    private final Position[] positions;
+    // Possible moves of moveColor, as computed by the last searchPossibleMove.
+    private final long[] possibleMove;
+    private int moveColor;
+    private final int words;
+    private long hash;
+
+    // Possible moves of each color, maintained incrementally while legalValid.
+    private final long[][] legal;
+    private boolean legalValid;
+    // Empty squares adjacent to at least one disc: the only squares that can be moves.
+    private final long[] frontier;
+    // Per square: the union of its row, column and both diagonals / its 8 neighbours.
+    private final long[][] lines;
+    private final long[][] neighbours;
+
+    // Shift amount (in bits) and mask applied after shifting, per direction.
+    private final int[] shift;
+    private final boolean[] shiftUp;
+    private final long[][] shiftMask;
+    private final long[] fullMask;
+
+    // Scratch boards used by the flood fills, so move generation allocates nothing.
+    private final long[] fill;
+    private final long[] step;
+    private final long[] empty;
+    private final long[] touched;
+    private final long[] affected;
+    private final long[] check;
 
     int sizeBoard;
 
@@ -31,27 +80,115 @@ public class Board {
                     + Constants.maxSizeBoard + ": " + sizeBoard);
         }
         this.sizeBoard = sizeBoard;
-        this.whiteCase = new HashMap<>();
-        this.blackCase = new HashMap<>();
-        this.possibleMove = new HashMap<>();
+        this.words = (sizeBoard * sizeBoard + 63) >>> 6;
+        this.discs = new long[2][words];
+        this.positions = Position.table(sizeBoard);
+        this.possibleMove = new long[words];
+        this.fill = new long[words];
+        this.step = new long[words];
+        this.empty = new long[words];
+        this.touched = new long[words];
+        this.affected = new long[words];
+        this.check = new long[words];
+        this.legal = new long[2][words];
+        this.frontier = new long[words];
+
+        this.fullMask = new long[words];
+        long[] notFirstColumn = new long[words];
+        long[] notLastColumn = new long[words];
+        for (int x = 0; x < sizeBoard; x++) {
+            for (int y = 0; y < sizeBoard; y++) {
+                int square = x * sizeBoard + y;
+                setBit(fullMask, square);
+                if (y != 0) {
+                    setBit(notFirstColumn, square);
+                }
+                if (y != sizeBoard - 1) {
+                    setBit(notLastColumn, square);
+                }
+            }
+        }
+
+        this.shift = new int[DIR_X.length];
+        this.shiftUp = new boolean[DIR_X.length];
+        this.shiftMask = new long[DIR_X.length][];
+        for (int d = 0; d < DIR_X.length; d++) {
+            int delta = DIR_X[d] * sizeBoard + DIR_Y[d];
+            shift[d] = Math.abs(delta);
+            shiftUp[d] = delta > 0;
+            // Moving right must not wrap into the first column of the next row,
+            // moving left must not wrap into the last column of the previous one.
+            shiftMask[d] = switch (DIR_Y[d]) {
+                case 1 -> notFirstColumn;
+                case -1 -> notLastColumn;
+                default -> fullMask;
+            };
+        }
+
+        int squares = sizeBoard * sizeBoard;
+        this.lines = new long[squares][words];
+        this.neighbours = new long[squares][words];
+        for (int square = 0; square < squares; square++) {
+            for (int d = 0; d < DIR_X.length; d++) {
+                int x = square / sizeBoard + DIR_X[d];
+                int y = square % sizeBoard + DIR_Y[d];
+                if (isInside(x, y)) {
+                    setBit(neighbours[square], square(x, y));
+                }
+                while (isInside(x, y)) {
+                    setBit(lines[square], square(x, y));
+                    x += DIR_X[d];
+                    y += DIR_Y[d];
+                }
+            }
+        }
 
         initialize();
     }
 
+    /**
+     * Constructs a copy of another board. The copy shares the precomputed
+     * tables of the original but none of its discs.
+     *
+     * @param other The board to copy.
+     */
+    Board(Board other) {
+        this.sizeBoard = other.sizeBoard;
+        this.words = other.words;
+        this.positions = other.positions;
+        this.shift = other.shift;
+        this.shiftUp = other.shiftUp;
+        this.shiftMask = other.shiftMask;
+        this.fullMask = other.fullMask;
+        this.lines = other.lines;
+        this.neighbours = other.neighbours;
+
+        this.discs = new long[][]{other.discs[BLACK].clone(), other.discs[WHITE].clone()};
+        this.possibleMove = other.possibleMove.clone();
+        this.moveColor = other.moveColor;
+        this.legal = new long[][]{other.legal[BLACK].clone(), other.legal[WHITE].clone()};
+        this.legalValid = other.legalValid;
+        this.frontier = other.frontier.clone();
+        this.hash = other.hash;
+
+        this.fill = new long[words];
+        this.step = new long[words];
+        this.empty = new long[words];
+        this.touched = new long[words];
+        this.affected = new long[words];
+        this.check = new long[words];
+    }
+
     /**
      * Initializes the board with initial tokens.
      */
     private void initialize() {
         int middle = sizeBoard / 2;
-        Position whiteToken1 = new Position(middle - 1, middle - 1);
-        Position blackToken1 = new Position(middle - 1, middle);
-        Position whiteToken2 = new Position(middle, middle);
-        Position blackToken2 = new Position(middle, middle - 1);
-
-        whiteCase.put(whiteToken1, ColorToken.WHITE);
-        whiteCase.put(whiteToken2, ColorToken.WHITE);
-        blackCase.put(blackToken1, ColorToken.BLACK);
-        blackCase.put(blackToken2, ColorToken.BLACK);
+        setBit(discs[WHITE], square(middle - 1, middle - 1));
+        setBit(discs[WHITE], square(middle, middle));
+        setBit(discs[BLACK], square(middle - 1, middle));
+        setBit(discs[BLACK], square(middle, middle - 1));
+        rehash();
         searchPossibleMove(ColorToken.BLACK);
     }
 
@@ -64,26 +201,68 @@ public class Board {
      * @throws IllegalArgumentException If the move is invalid.
      */
     ArrayList<Position> add(Position position, ColorToken colorToken) {
-        if (!possibleMove.containsKey(position)) {
+        Objects.requireNonNull(position, "cannot add without a position");
+        int square = toSquare(position);
+        if (square < 0 || !isPossibleMove(square)) {
             throw new IllegalArgumentException("invalid move: "
                     + "(" + position.getX() + ", " + position.getY() + ")");
         }
-        Objects.requireNonNull(blackCase,
-                 "blackCase not found");
-        Objects.requireNonNull(whiteCase,
-                 "whiteCase not found");
+        return add(square, colorToken);
+    }
 
-        Map<Position, ColorToken> currentPlayer = getMap(colorToken);
-        Map<Position, ColorToken> adversePlayer = getAdverseMap(colorToken);
-        ArrayList<Position> takeOver = possibleMove.get(position);
-        for (Position positionToken : takeOver) {
-            currentPlayer.put(positionToken, colorToken);
-            adversePlayer.remove(positionToken);
-        }
-        currentPlayer.put(position, colorToken);
-        takeOver.add(position);
-        possibleMove.remove(position);
+    /**
+     * Adds a token to the board and records the discs taken over, for the
+     * history of the game (see {@link MoveHistory}).
+     *
+     * @param position The position to add the token to.
+     * @param colorToken The color of the token to add.
+     * @param flips Receives the discs taken over; must hold {@link #getWords()} longs.
+     * @return The list of positions taken over by adding the token.
+     * @throws IllegalArgumentException If the move is invalid.
+     */
+    ArrayList<Position> add(Position position, ColorToken colorToken, long[] flips) {
+        ArrayList<Position> takeOver = add(position, colorToken);
+        System.arraycopy(touched, 0, flips, 0, words);
+        clearBit(flips, toSquare(position));
+        return takeOver;
+    }
 
+    /**
+     * Adds a token on a square known to be a possible move.
+     *
+     * @param square The square (see {@link #toSquare(Position)}) to add the token to.
+     * @param colorToken The color of the token to add.
+     * @return The list of positions taken over, the added position last.
+     */
+    ArrayList<Position> add(int square, ColorToken colorToken) {
+        int color = colorToken.ordinal();
+
+        ArrayList<Position> takeOver = new ArrayList<>();
+        long[] current = discs[color];
+        long[] adverse = discs[1 - color];
+        Arrays.fill(touched, 0L);
+        for (int d = 0; d < DIR_X.length; d++) {
+            int length = rayLength(square, d, color);
+            int target = square;
+            for (int i = 0; i < length; i++) {
+                target += DIR_X[d] * sizeBoard + DIR_Y[d];
+                setBit(current, target);
+                clearBit(adverse, target);
+                setBit(touched, target);
+                hash ^= Zobrist.FLIP[target];
+                takeOver.add(toPosition(target));
+            }
+        }
+        setBit(current, square);
+        hash ^= Zobrist.DISC[color][square];
+        setBit(touched, square);
+        takeOver.add(positions[square]);
+        clearBit(possibleMove, square);
+
+        if (legalValid) {
+            or(frontier, neighbours[square]);
+            updateLegal();
+        }
         return takeOver;
     }
 
@@ -94,154 +273,419 @@ public class Board {
      * @param colorToken The color token for which to search possible moves.
      */
     void searchPossibleMove(ColorToken colorToken) {
-        Objects.requireNonNull(blackCase,
-                 "blackCase not found");
-        Objects.requireNonNull(whiteCase,
-                 "whiteCase not found");
+        Objects.requireNonNull(colorToken, "color not found");
+        moveColor = colorToken.ordinal();
+        if (!legalValid) {
+            rescan();
+        } else if (Constants.validateMoves) {
+            validate();
+        }
+        System.arraycopy(legal[moveColor], 0, possibleMove, 0, words);
+    }
 
-        possibleMove.clear();
+    // Full rescan: rebuilds the frontier and the possible moves of both colors.
+    private void rescan() {
+        generateMoves(BLACK, legal[BLACK]);
+        generateMoves(WHITE, legal[WHITE]);
+        Arrays.fill(frontier, 0L);
+        for (int i = 0; i < words; i++) {
+            fill[i] = discs[BLACK][i] | discs[WHITE][i];
+        }
+        for (int d = 0; d < DIR_X.length; d++) {
+            shift(fill, d, step);
+            or(frontier, step);
+        }
+        for (int i = 0; i < words; i++) {
+            frontier[i] &= ~fill[i];
+        }
+        legalValid = true;
+    }
 
-        Map<Position, ColorToken> playerTurn = getMap(colorToken);
-        for (Map.Entry<Position, ColorToken> positionToken : playerTurn.entrySet()) {
-            possibleAddVerticals(positionToken);
-            possibleAddHorizontals(positionToken);
-            possibleAddDiagonals(positionToken);
+    // Cross-checks the incremental possible moves against a full rescan.
+    private void validate() {
+        for (int color = BLACK; color <= WHITE; color++) {
+            generateMoves(color, check);
+            if (!Arrays.equals(check, legal[color])) {
+                throw new IllegalStateException("incremental moves of "
+                        + ColorToken.values()[color] + " out of sync: "
+                        + toPositions(legal[color]) + " instead of " + toPositions(check));
+            }
         }
     }
 
-    //Calculates possible moves diagonally from the given position token.
-    private void possibleAddDiagonals(Map.Entry<Position, ColorToken> positionToken) {
-        Objects.requireNonNull(positionToken,
-                 "cannot add diagonally without a position token");
-        addPossible(positionToken, 1, 1);
-        addPossible(positionToken, -1, -1);
-        addPossible(positionToken, 1, -1);
-        addPossible(positionToken, -1, 1);
+    /*
+     * Tests again every frontier square on a line through a touched square, for
+     * both colors. The frontier must already include the squares next to the
+     * touched ones.
+     */
+    private void updateLegal() {
+        Arrays.fill(affected, 0L);
+        for (int i = 0; i < words; i++) {
+            long word = touched[i];
+            while (word != 0) {
+                or(affected, lines[(i << 6) + Long.numberOfTrailingZeros(word)]);
+                word &= word - 1;
+            }
+        }
+        for (int i = 0; i < words; i++) {
+            long occupied = discs[BLACK][i] | discs[WHITE][i];
+            frontier[i] &= ~occupied;
+            // squares whose legality may have changed are forgotten, then re-tested
+            affected[i] |= touched[i];
+            legal[BLACK][i] &= ~affected[i];
+            legal[WHITE][i] &= ~affected[i];
+            affected[i] &= frontier[i];
+        }
+        for (int i = 0; i < words; i++) {
+            long word = affected[i];
+            while (word != 0) {
+                int square = (i << 6) + Long.numberOfTrailingZeros(word);
+                if (hasFlip(square, BLACK)) {
+                    setBit(legal[BLACK], square);
+                }
+                if (hasFlip(square, WHITE)) {
+                    setBit(legal[WHITE], square);
+                }
+                word &= word - 1;
+            }
+        }
     }
 
-    //Calculates possible moves horizontally from the given position token.
-    private void possibleAddHorizontals(Map.Entry<Position, ColorToken> positionToken) {
-        Objects.requireNonNull(positionToken,
-                 "cannot add horizontally without a position token");
-        addPossible(positionToken, 1, 0);
-        addPossible(positionToken, -1, 0);
+    // Fills moves with every square where color can play, one flood fill per direction.
+    private void generateMoves(int color, long[] moves) {
+        long[] own = discs[color];
+        long[] adverse = discs[1 - color];
+        for (int i = 0; i < words; i++) {
+            moves[i] = 0L;
+            empty[i] = ~(own[i] | adverse[i]) & fullMask[i];
+        }
+        for (int d = 0; d < DIR_X.length; d++) {
+            // fill = adverse discs directly adjacent to own discs in direction d
+            shift(own, d, fill);
+            and(fill, adverse);
+            // a run of adverse discs is at most sizeBoard - 2 long
+            for (int k = 0; k < sizeBoard - 3; k++) {
+                shift(fill, d, step);
+                and(step, adverse);
+                or(fill, step);
+            }
+            // the empty square right after the run closes the move
+            shift(fill, d, step);
+            and(step, empty);
+            or(moves, step);
+        }
     }
 
-    //Calculates possible moves vertically from the given position token.
-    private void possibleAddVerticals(Map.Entry<Position, ColorToken> positionToken) {
-        Objects.requireNonNull(positionToken,
-                 "cannot add vertically without a position token");
-        addPossible(positionToken, 0, 1);
-        addPossible(positionToken, 0, -1);
+    // Number of adverse discs flipped in direction d when color plays on square.
+    private int rayLength(int square, int d, int color) {
+        long[] own = discs[color];
+        long[] adverse = discs[1 - color];
+        int x = square / sizeBoard + DIR_X[d];
+        int y = square % sizeBoard + DIR_Y[d];
+        int length = 0;
+        while (isInside(x, y) && testBit(adverse, square(x, y))) {
+            x += DIR_X[d];
+            y += DIR_Y[d];
+            length++;
+        }
+        return isInside(x, y) && testBit(own, square(x, y)) ? length : 0;
     }
 
-    //Adds possible moves to the board based on the given position token and delta values.
-    private void addPossible(Map.Entry<Position, ColorToken> positionToken,
-             int deltaX, int deltaY) {
-        Objects.requireNonNull(positionToken,
-                 "cannot verify is an add is possible without a position token");
-        ArrayList<Position> possibleTakeOver = new ArrayList<>();
+    // True if color takes over at least one disc by playing on square.
+    private boolean hasFlip(int square, int color) {
+        for (int d = 0; d < DIR_X.length; d++) {
+            if (rayLength(square, d, color) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
 
+    // Number of discs color takes over by playing on square.
+    private int countFlips(int square, int color) {
         int count = 0;
-        Position searchPosition = new Position(positionToken.getKey());
-        searchPosition.movePosition(deltaX, deltaY);
-        Map<Position, ColorToken> adverseMap = getAdverseMap(positionToken.getValue());
-        Map<Position, ColorToken> currentPlayer = getMap(positionToken.getValue());
-        boolean hasPositionAdverse = adverseMap.containsKey(searchPosition);
-        boolean hasPosition = currentPlayer.containsKey(searchPosition);
-        while ((searchPosition.getY() < sizeBoard && searchPosition.getY() >= 0)
-                && (searchPosition.getX() < sizeBoard && searchPosition.getX() >= 0)
-                && hasPositionAdverse && !hasPosition) {
-            possibleTakeOver.add(new Position(searchPosition));
-            searchPosition.movePosition(deltaX, deltaY);
-            count++;
-            hasPositionAdverse = adverseMap.containsKey(searchPosition);
-            hasPosition = currentPlayer.containsKey(searchPosition);
-        }
-        addPossibleMap(possibleTakeOver, searchPosition, count, !hasPosition);
-    }
-
-    // Adds the list of possible takeovers to the possible move map.
-    private void addPossibleMap(ArrayList<Position> possibleTakeOver,
-             Position position, int count, boolean canBeAdd) {
-        Objects.requireNonNull(possibleTakeOver,
-                 "list of possible take over not found");
-        Objects.requireNonNull(position,
-                 "cannot add without a position");
-        if ((position.getY() >= sizeBoard || position.getY() < 0
-                || position.getX() >= sizeBoard || position.getX() < 0)
-                || count == 0 || !canBeAdd) {
-            possibleTakeOver.clear();
-        } else if (possibleMove.containsKey(position)) {
-            possibleMove.get(position).addAll(possibleTakeOver);
+        for (int d = 0; d < DIR_X.length; d++) {
+            count += rayLength(square, d, color);
+        }
+        return count;
+    }
+
+    // dst = src shifted one step in direction d, masked against wrap-around.
+    private void shift(long[] src, int d, long[] dst) {
+        int s = shift[d];
+        long[] mask = shiftMask[d];
+        if (shiftUp[d]) {
+            for (int i = words - 1; i > 0; i--) {
+                dst[i] = ((src[i] << s) | (src[i - 1] >>> (64 - s))) & mask[i];
+            }
+            dst[0] = (src[0] << s) & mask[0];
         } else {
-            possibleMove.put(position, possibleTakeOver);
+            int last = words - 1;
+            for (int i = 0; i < last; i++) {
+                dst[i] = ((src[i] >>> s) | (src[i + 1] << (64 - s))) & mask[i];
+            }
+            dst[last] = (src[last] >>> s) & mask[last];
+        }
+    }
+
+    private void and(long[] dst, long[] other) {
+        for (int i = 0; i < words; i++) {
+            dst[i] &= other[i];
+        }
+    }
+
+    private void or(long[] dst, long[] other) {
+        for (int i = 0; i < words; i++) {
+            dst[i] |= other[i];
         }
     }
 
-    private Map<Position, ColorToken> getAdverseMap(ColorToken colorToken) {
-        return switch (colorToken) {
-            case BLACK ->
-                whiteCase;
-            case WHITE ->
-                blackCase;
-        };
+    private int square(int x, int y) {
+        return x * sizeBoard + y;
     }
 
-    Map<Position, ColorToken> getMap(ColorToken colorToken) {
-        return switch (colorToken) {
-            case BLACK ->
-                blackCase;
-            case WHITE ->
-                whiteCase;
-        };
+    private boolean isInside(int x, int y) {
+        return x >= 0 && x < sizeBoard && y >= 0 && y < sizeBoard;
     }
 
-    Map<Position, ArrayList<Position>> getMapPossible() {
-        return possibleMove;
+    private Position toPosition(int square) {
+        return positions[square];
+    }
+
+    /**
+     * Returns the square of a position: {@code x * sizeBoard + y}.
+     *
+     * @param position The position on this board.
+     * @return the square index, or -1 if the position is outside the board.
+     */
+    int toSquare(Position position) {
+        int x = position.getX();
+        int y = position.getY();
+        return isInside(x, y) ? square(x, y) : -1;
+    }
+
+    /**
+     * @param square A square index of this board.
+     * @return the shared position of this square.
+     */
+    Position getPosition(int square) {
+        return positions[square];
+    }
+
+    /**
+     * @param square A square index of this board.
+     * @return true if the square is one of the possible moves found by the
+     * last {@link #searchPossibleMove(ColorToken)}.
+     */
+    boolean isPossibleMove(int square) {
+        return testBit(possibleMove, square);
+    }
+
+    /**
+     * Writes the squares of the possible moves, in increasing order.
+     *
+     * @param squares Receives the squares; must hold {@code sizeBoard * sizeBoard} values.
+     * @return the number of possible moves written.
+     */
+    int getMoves(int[] squares) {
+        int count = 0;
+        for (int i = 0; i < words; i++) {
+            long word = possibleMove[i];
+            while (word != 0) {
+                squares[count++] = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param moves Receives the possible moves found by the last
+     * {@link #searchPossibleMove(ColorToken)}; must hold {@link #getWords()} longs.
+     */
+    void getMoves(long[] moves) {
+        System.arraycopy(possibleMove, 0, moves, 0, words);
+    }
+
+    /**
+     * Sorts squares by their content.
+     *
+     * @param squares The squares to sort.
+     * @param black Receives the ones holding a black disc.
+     * @param white Receives the ones holding a white disc.
+     * @param empty Receives the empty ones.
+     */
+    void split(long[] squares, long[] black, long[] white, long[] empty) {
+        for (int i = 0; i < words; i++) {
+            black[i] = squares[i] & discs[BLACK][i];
+            white[i] = squares[i] & discs[WHITE][i];
+            empty[i] = squares[i] & ~(discs[BLACK][i] | discs[WHITE][i]);
+        }
+    }
+
+    private static boolean testBit(long[] board, int square) {
+        return (board[square >>> 6] & (1L << square)) != 0;
+    }
+
+    private static void setBit(long[] board, int square) {
+        board[square >>> 6] |= 1L << square;
+    }
+
+    private static void clearBit(long[] board, int square) {
+        board[square >>> 6] &= ~(1L << square);
+    }
+
+    private static int bitCount(long[] board) {
+        int count = 0;
+        for (long word : board) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    // Lists the positions of every bit set in board, in increasing square order.
+    private ArrayList<Position> toPositions(long[] board) {
+        ArrayList<Position> positions = new ArrayList<>(bitCount(board));
+        for (int i = 0; i < words; i++) {
+            long word = board[i];
+            while (word != 0) {
+                positions.add(toPosition((i << 6) + Long.numberOfTrailingZeros(word)));
+                word &= word - 1;
+            }
+        }
+        return positions;
     }
 
     ArrayList<Position> getMovePossible() {
-        return new ArrayList<>(possibleMove.keySet());
+        return toPositions(possibleMove);
     }
 
     ArrayList<Position> getPositionsColor(ColorToken colorToken) {
-        return switch (colorToken) {
-            case BLACK ->
-                new ArrayList<>(blackCase.keySet());
-            case WHITE ->
-                new ArrayList<>(whiteCase.keySet());
-        };
+        return toPositions(discs[colorToken.ordinal()]);
     }
 
     int[] getScore() {
-        return new int[]{blackCase.size(), whiteCase.size()};
+        return new int[]{bitCount(discs[BLACK]), bitCount(discs[WHITE])};
     }
 
     /**
-     * Sets the board state based on the provided saved state.
+     * Takes back a move of the game, recorded by
+     * {@link #add(Position, ColorToken, long[])}, and keeps the possible moves
+     * up to date.
      *
-     * @param saveState An array containing the saved state of the board. The
-     * first element should contain positions of black tokens, and the second
-     * element should contain positions of white tokens.
-     * @throws NullPointerException If the saved state array is null.
-     */
-    void setBoard(ArrayList<Position>[] saveState) {
-        Objects.requireNonNull(saveState, "Save is null");
-        blackCase.clear();
-        whiteCase.clear();
-        setMap(saveState[0], ColorToken.BLACK);
-        setMap(saveState[1], ColorToken.WHITE);
-    }
-
-    //Sets the positions of tokens on the board based on the provided list of positions.
-    private void setMap(ArrayList<Position> positions, ColorToken colorToken) {
-        for (Position position : positions) {
-            switch (colorToken) {
-                case BLACK ->
-                    blackCase.put(position, colorToken);
-                case WHITE ->
-                    whiteCase.put(position, colorToken);
+     * @param square The square that was played.
+     * @param colorToken The color that played.
+     * @param flips The discs taken over.
+     */
+    void remove(int square, ColorToken colorToken, long[] flips) {
+        int color = colorToken.ordinal();
+        long[] current = discs[color];
+        long[] adverse = discs[1 - color];
+        clearBit(current, square);
+        hash ^= Zobrist.DISC[color][square];
+        for (int i = 0; i < words; i++) {
+            current[i] &= ~flips[i];
+            adverse[i] |= flips[i];
+            touched[i] = flips[i];
+            long word = flips[i];
+            while (word != 0) {
+                hash ^= Zobrist.FLIP[(i << 6) + Long.numberOfTrailingZeros(word)];
+                word &= word - 1;
+            }
+        }
+        setBit(touched, square);
+
+        if (legalValid) {
+            // the emptied square may join the frontier, its neighbours may leave it
+            Arrays.fill(affected, 0L);
+            setBit(affected, square);
+            setBit(frontier, square);
+            pruneFrontier();
+            updateLegal();
+        }
+    }
+
+    /**
+     * Plays again a move taken back by
+     * {@link #remove(int, ColorToken, long[])}, without searching its flips.
+     *
+     * @param square The square played.
+     * @param colorToken The color that plays.
+     * @param flips The discs taken over.
+     */
+    void replay(int square, ColorToken colorToken, long[] flips) {
+        int color = colorToken.ordinal();
+        long[] current = discs[color];
+        long[] adverse = discs[1 - color];
+        for (int i = 0; i < words; i++) {
+            current[i] |= flips[i];
+            adverse[i] &= ~flips[i];
+            touched[i] = flips[i];
+            long word = flips[i];
+            while (word != 0) {
+                hash ^= Zobrist.FLIP[(i << 6) + Long.numberOfTrailingZeros(word)];
+                word &= word - 1;
+            }
+        }
+        setBit(current, square);
+        hash ^= Zobrist.DISC[color][square];
+        setBit(touched, square);
+        clearBit(possibleMove, square);
+
+        if (legalValid) {
+            or(frontier, neighbours[square]);
+            updateLegal();
+        }
+    }
+
+    /*
+     * Fixes the frontier around the squares listed in affected, which were
+     * emptied: they and their empty neighbours stay on the frontier only if a
+     * disc still touches them.
+     */
+    private void pruneFrontier() {
+        for (int i = 0; i < words; i++) {
+            check[i] = affected[i];
+        }
+        for (int i = 0; i < words; i++) {
+            long word = affected[i];
+            while (word != 0) {
+                or(check, neighbours[(i << 6) + Long.numberOfTrailingZeros(word)]);
+                word &= word - 1;
+            }
+        }
+        for (int i = 0; i < words; i++) {
+            long word = check[i] & ~(discs[BLACK][i] | discs[WHITE][i]);
+            while (word != 0) {
+                int square = (i << 6) + Long.numberOfTrailingZeros(word);
+                if (isIsolated(square)) {
+                    clearBit(frontier, square);
+                }
+                word &= word - 1;
+            }
+        }
+    }
+
+    private boolean isIsolated(int square) {
+        long[] around = neighbours[square];
+        for (int i = 0; i < words; i++) {
+            if ((around[i] & (discs[BLACK][i] | discs[WHITE][i])) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Computes the Zobrist hash of the whole board.
+    private void rehash() {
+        hash = Zobrist.SIZE[sizeBoard];
+        for (int color = BLACK; color <= WHITE; color++) {
+            for (int i = 0; i < words; i++) {
+                long word = discs[color][i];
+                while (word != 0) {
+                    hash ^= Zobrist.DISC[color][(i << 6) + Long.numberOfTrailingZeros(word)];
+                    word &= word - 1;
+                }
             }
         }
     }
@@ -253,19 +697,19 @@ public class Board {
      * moves are available.
      */
     Position getRandomMove() {
-        Position randomMove = null;
+        int randomIndex = (int) (Math.random() * bitCount(possibleMove));
         int index = 0;
-        int randomIndex = (int) (Math.random() * possibleMove.size());
-
-        for (Map.Entry<Position, ArrayList<Position>> position
-                : possibleMove.entrySet()) {
-            randomMove = position.getKey();
-            if (index == randomIndex) {
-                return randomMove;
+        for (int i = 0; i < words; i++) {
+            long word = possibleMove[i];
+            while (word != 0) {
+                if (index == randomIndex) {
+                    return toPosition((i << 6) + Long.numberOfTrailingZeros(word));
+                }
+                word &= word - 1;
+                index++;
             }
-            index++;
         }
-        return randomMove;
+        return null;
     }
 
     /**
@@ -279,13 +723,235 @@ public class Board {
         Position maxMove = null;
         int max = -1;
 
-        for (Map.Entry<Position, ArrayList<Position>> position
-                : possibleMove.entrySet()) {
-            if (position.getValue().size() > max) {
-                maxMove = position.getKey();
-                max = position.getValue().size();
+        for (int i = 0; i < words; i++) {
+            long word = possibleMove[i];
+            while (word != 0) {
+                int square = (i << 6) + Long.numberOfTrailingZeros(word);
+                int flips = countFlips(square, moveColor);
+                if (flips > max) {
+                    maxMove = toPosition(square);
+                    max = flips;
+                }
+                word &= word - 1;
             }
         }
         return maxMove;
     }
+
+    /*
+     * Alec : make/unmake API used by the search strategies of the controller.
+     * These methods work on a copy of the board (see Game#copyBoard()) and do
+     * not maintain the possible moves kept for Game: the next
+     * searchPossibleMove after a makeMove rescans the board.
+     */
+
+    /**
+     * @return the size of the board.
+     */
+    public int getSize() {
+        return sizeBoard;
+    }
+
+    /**
+     * @return the number of longs needed to hold a set of squares of this
+     * board, i.e. the length of the flip buffers of
+     * {@link #makeMove(int, ColorToken, long[])}.
+     */
+    public int getWords() {
+        return words;
+    }
+
+    /**
+     * Writes the squares where a color can play, in increasing order.
+     *
+     * @param colorToken The color to move.
+     * @param squares Receives the squares; must hold {@code size * size} values.
+     * @return the number of moves written.
+     */
+    public int listMoves(ColorToken colorToken, int[] squares) {
+        generateMoves(colorToken.ordinal(), check);
+        int count = 0;
+        for (int i = 0; i < words; i++) {
+            long word = check[i];
+            while (word != 0) {
+                squares[count++] = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param colorToken The color to move.
+     * @return the number of squares where the color can play.
+     */
+    public int countMoves(ColorToken colorToken) {
+        generateMoves(colorToken.ordinal(), check);
+        return bitCount(check);
+    }
+
+    /**
+     * @param colorToken The color to count.
+     * @return the number of discs of the color.
+     */
+    public int countDiscs(ColorToken colorToken) {
+        return bitCount(discs[colorToken.ordinal()]);
+    }
+
+    /**
+     * @return the number of empty squares.
+     */
+    public int countEmpty() {
+        return sizeBoard * sizeBoard - bitCount(discs[BLACK]) - bitCount(discs[WHITE]);
+    }
+
+    /**
+     * @param square The square {@code x * size + y}.
+     * @return true if no disc is on the square.
+     */
+    public boolean isEmpty(int square) {
+        long bit = 1L << square;
+        return ((discs[BLACK][square >>> 6] | discs[WHITE][square >>> 6]) & bit) == 0;
+    }
+
+    /**
+     * @param colorToken The color to count.
+     * @param weights A weight per square.
+     * @return the sum of the weights of the squares owned by the color.
+     */
+    public int weightedSum(ColorToken colorToken, int[] weights) {
+        long[] board = discs[colorToken.ordinal()];
+        int sum = 0;
+        for (int i = 0; i < words; i++) {
+            long word = board[i];
+            while (word != 0) {
+                sum += weights[(i << 6) + Long.numberOfTrailingZeros(word)];
+                word &= word - 1;
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Plays a move returned by {@link #listMoves(ColorToken, int[])}.
+     *
+     * @param square The square to play.
+     * @param colorToken The color playing.
+     * @param flips Receives the discs taken over; must hold {@link #getWords()} longs.
+     * @return the number of discs taken over.
+     */
+    public int makeMove(int square, ColorToken colorToken, long[] flips) {
+        int color = colorToken.ordinal();
+        long[] current = discs[color];
+        long[] adverse = discs[1 - color];
+        Arrays.fill(flips, 0L);
+        int count = 0;
+        for (int d = 0; d < DIR_X.length; d++) {
+            int length = rayLength(square, d, color);
+            int target = square;
+            for (int i = 0; i < length; i++) {
+                target += DIR_X[d] * sizeBoard + DIR_Y[d];
+                setBit(flips, target);
+                hash ^= Zobrist.FLIP[target];
+            }
+            count += length;
+        }
+        for (int i = 0; i < words; i++) {
+            current[i] |= flips[i];
+            adverse[i] &= ~flips[i];
+        }
+        setBit(current, square);
+        hash ^= Zobrist.DISC[color][square];
+        legalValid = false;
+        return count;
+    }
+
+    /**
+     * Takes back a move played by {@link #makeMove(int, ColorToken, long[])}.
+     *
+     * @param square The square that was played.
+     * @param colorToken The color that played.
+     * @param flips The discs taken over, as filled by makeMove.
+     */
+    public void undoMove(int square, ColorToken colorToken, long[] flips) {
+        int color = colorToken.ordinal();
+        long[] current = discs[color];
+        long[] adverse = discs[1 - color];
+        clearBit(current, square);
+        hash ^= Zobrist.DISC[color][square];
+        for (int i = 0; i < words; i++) {
+            current[i] &= ~flips[i];
+            adverse[i] |= flips[i];
+            long word = flips[i];
+            while (word != 0) {
+                hash ^= Zobrist.FLIP[(i << 6) + Long.numberOfTrailingZeros(word)];
+                word &= word - 1;
+            }
+        }
+        legalValid = false;
+    }
+
+    /**
+     * Returns the Zobrist hash of the position: the discs, the size of the
+     * board and the color to move.
+     *
+     * @param toMove The color to move.
+     * @return the hash of the position.
+     */
+    public long getHash(ColorToken toMove) {
+        return toMove == ColorToken.WHITE ? hash ^ Zobrist.WHITE_TO_MOVE : hash;
+    }
+
+    /**
+     * Returns the hash of the position after a symmetry of the board.
+     *
+     * @param toMove The color to move.
+     * @param symmetry The symmetry, from 0 to 7 (see {@link Symmetry}).
+     * @return the hash of the transformed position.
+     */
+    public long getHash(ColorToken toMove, int symmetry) {
+        int[] image = Symmetry.table(sizeBoard)[symmetry];
+        long h = Zobrist.SIZE[sizeBoard];
+        for (int color = BLACK; color <= WHITE; color++) {
+            long[] board = discs[color];
+            for (int i = 0; i < words; i++) {
+                long word = board[i];
+                while (word != 0) {
+                    h ^= Zobrist.DISC[color][image[(i << 6) + Long.numberOfTrailingZeros(word)]];
+                    word &= word - 1;
+                }
+            }
+        }
+        return toMove == ColorToken.WHITE ? h ^ Zobrist.WHITE_TO_MOVE : h;
+    }
+
+    /**
+     * Returns the symmetry giving the smallest hash of the position: symmetric
+     * positions all have the same canonical form.
+     *
+     * @param toMove The color to move.
+     * @return the symmetry, from 0 to 7, leading to the canonical position.
+     */
+    public int getCanonicalSymmetry(ColorToken toMove) {
+        int best = 0;
+        long min = getHash(toMove);
+        for (int s = 1; s < Symmetry.COUNT; s++) {
+            long h = getHash(toMove, s);
+            if (Long.compareUnsigned(h, min) < 0) {
+                min = h;
+                best = s;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the same hash for a position and for its 7 symmetric positions.
+     *
+     * @param toMove The color to move.
+     * @return the hash of the canonical position.
+     */
+    public long getCanonicalHash(ColorToken toMove) {
+        return getHash(toMove, getCanonicalSymmetry(toMove));
+    }
 }
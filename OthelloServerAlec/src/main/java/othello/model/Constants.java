@@ -7,4 +7,7 @@ package othello.model;
 public class Constants {
     public static final int minSizeBoard = 3;
     public static final int maxSizeBoard = 15;
+    // Cross-checks the incremental possible moves of Board against a full rescan
+    // (slow, for debugging). Enabled with -Dothello.validateMoves=true.
+    public static final boolean validateMoves = Boolean.getBoolean("othello.validateMoves");
 }
@@ -18,8 +18,11 @@ public class Game {
     private int playerTurn;
     private int nbPass; // Alec : on the case if we want to implement it. 
     private GameState gameState;
-    private final LinkedList<ArrayList<Position>[]> undoHistory;
-    private final LinkedList<ArrayList<Position>[]> redoHistory;
+    // Alec : the moves as square and flipped discs, instead of copies of the board
+    private final MoveHistory history;
+    private final long[] flips;
+    // Alec : the squares changed since the last takeChanges
+    private final long[] changed;
 
     /**
      * @author : Sami EL YAGHMOURI (2024) Constructs a new game with the
@@ -41,9 +44,9 @@ public class Game {
         this.nbPass = 0;
         gameState = GameState.RUNNING;
 
-        undoHistory = new LinkedList<>();
-        redoHistory = new LinkedList<>();
-        saveData();
+        history = new MoveHistory(board.getWords());
+        flips = new long[board.getWords()];
+        changed = new long[board.getWords()];
     }
 
     /**
@@ -64,13 +67,10 @@ public class Game {
      * @param surrender A boolean indicating if the move is a surrender.
      */
     public void addPiece(Position position, boolean surrender) {
-        if (!redoHistory.isEmpty()) {
-            redoHistory.clear();
-        }
         ColorToken currentPlayer = players[playerTurn];
         ArrayList<Position> modifyBoard;
         if (!surrender) {
-            modifyBoard = board.add(position, currentPlayer);
+            modifyBoard = board.add(position, currentPlayer, flips);
         } else {
             modifyBoard = new ArrayList<>();
         }
@@ -80,9 +80,19 @@ public class Game {
         scores = board.getScore();
         State state = new State(modifyBoard, possibleMove,
                 currentPlayer, players[playerTurn], scores, gameState);
-        saveData();
+        // Alec : the history forgets the moves undone, as the redo list did
+        int square = surrender ? MoveHistory.NO_SQUARE : board.toSquare(position);
+        if (surrender) {
+            Arrays.fill(flips, 0L);
+        } else {
+            markChanged(square);
+        }
+        history.push(square, currentPlayer, flips);
+        // End Alec
 
         ob.firePropertyChange("BoardState", null, state);
+        // Alec : the move for the move log, see GameReplay
+        ob.firePropertyChange(GameReplay.PROPERTY, null, surrender ? GameReplay.SURRENDER : square);
     }
 
     /**
@@ -129,67 +139,62 @@ public class Game {
     }
 
     /**
-     * @author : Sami EL YAGHMOURI (2024) Saves the current state of the game
-     * (positions of black and white tokens) into the undo history.
-     */
-    private void saveData() {
-        ArrayList<Position> blackPosition
-                = board.getPositionsColor(ColorToken.BLACK);
-        ArrayList<Position> whitePosition
-                = board.getPositionsColor(ColorToken.WHITE);
-
-        @SuppressWarnings("unchecked")
-        ArrayList<Position>[] saveState = new ArrayList[2];
-        saveState[0] = blackPosition;
-        saveState[1] = whitePosition;
-        undoHistory.add(saveState);
-    }
-
-    /**
-     * @author : Sami EL YAGHMOURI (2024) Undoes the last move made in the game.
-     * If there are moves to undo, it removes the last saved state from the undo
-     * history, adds it to the redo history, updates the player turn, and sets
-     * the board to the state before the last move. If there are no moves to
-     * undo, it triggers the redoGame method.
+     * @author : Sami EL YAGHMOURI (2024) & Alec Waumans (2025) Undoes the last
+     * move made in the game. If there are moves to undo, it moves the last one
+     * to the redo side of the history, updates the player turn, and sets the
+     * board to the state before that move. If there are no moves to undo, the
+     * game is unchanged.
+     *
+     * Alec : the move is taken back from its square and flipped discs, see
+     * {@link MoveHistory}, instead of rebuilding the board from a copy.
      */
     public void undoGame() {
-        if (!undoHistory.isEmpty()) {
-            var saveState = undoHistory.removeLast();
-            redoHistory.add(saveState);
+        if (history.canUndo()) {
+            int move = history.undo();
             playerTurn = (Math.abs(playerTurn - 1)) % 2;
-            if (!undoHistory.isEmpty()) {
-                saveState = undoHistory.peekLast();
-                setBoard(saveState);
-            } else {
-                redoGame();
+            int square = history.getSquare(move);
+            if (square != MoveHistory.NO_SQUARE) {
+                history.getFlips(move, flips);
+                board.remove(square, history.getColor(move), flips);
+                markChanged(square);
             }
+            updateBoard();
+            ob.firePropertyChange(GameReplay.PROPERTY, null, GameReplay.UNDO);
         }
     }
 
     /**
-     * @author : Sami EL YAGHMOURI (2024) Redoes the last undone move in the
-     * game. If there are moves to redo, it removes the last saved state from
-     * the redo history, adds it back to the undo history, updates the player's
-     * turn, and restores the board to the state of the last undone move.
+     * @author : Sami EL YAGHMOURI (2024) & Alec Waumans (2025) Redoes the last
+     * undone move in the game. If there are moves to redo, it moves the next
+     * one back to the undo side of the history, updates the player's turn, and
+     * plays the move again.
      */
     public void redoGame() {
-        if (!redoHistory.isEmpty()) {
-            var saveState = redoHistory.removeLast();
-            undoHistory.add(saveState);
+        if (history.canRedo()) {
+            int move = history.redo();
             playerTurn = (playerTurn + 1) % 2;
-            setBoard(saveState);
+            int square = history.getSquare(move);
+            if (square != MoveHistory.NO_SQUARE) {
+                history.getFlips(move, flips);
+                board.replay(square, history.getColor(move), flips);
+                markChanged(square);
+            }
+            updateBoard();
+            ob.firePropertyChange(GameReplay.PROPERTY, null, GameReplay.REDO);
         }
     }
 
     /**
-     * @author : Sami EL YAGHMOURI (2024) Sets the game board to the specified
-     * state.
+     * @author : Sami EL YAGHMOURI (2024) & Alec Waumans (2025) Updates the
+     * possible moves and the score after an undo or a redo.
+     *
+     * Alec : the board keeps its possible moves up to date, so this does not
+     * scan the board again.
      */
-    private void setBoard(ArrayList<Position>[] saveState) {
+    private void updateBoard() {
         ColorToken currentPlayer = players[playerTurn];
         ColorToken nextColor = players[(playerTurn + 1) % 2];
 
-        board.setBoard(saveState);
         board.searchPossibleMove(currentPlayer);
         scores = board.getScore();
         possibleMove = board.getMovePossible();
@@ -199,6 +204,50 @@ public class Game {
         ob.firePropertyChange("SetBoard", null, state);
     }
 
+    /**
+     * @author : Alec Waumans (2025)
+     * Adds a square played, undone or redone and the discs it flipped (in
+     * flips) to the changes.
+     */
+    private void markChanged(int square) {
+        for (int i = 0; i < changed.length; i++) {
+            changed[i] |= flips[i];
+        }
+        changed[square >>> 6] |= 1L << square;
+    }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * Returns the squares changed since the previous call, known from the
+     * moves played, undone and redone meanwhile (their square and the discs
+     * they flipped, see {@link MoveHistory}), so that the changes are found
+     * without comparing whole boards.
+     *
+     * @return the changes, with the possible moves, the score and the state
+     * of the game now.
+     */
+    public StateDelta takeChanges() {
+        int words = changed.length;
+        long[] black = new long[words];
+        long[] white = new long[words];
+        long[] emptied = new long[words];
+        board.split(changed, black, white, emptied);
+        Arrays.fill(changed, 0L);
+        long[] moves = new long[words];
+        board.getMoves(moves);
+        return new StateDelta(board.getSize(), black, white, emptied, moves,
+                Arrays.copyOf(scores, scores.length), players[(playerTurn + 1) % 2], gameState);
+    }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * @param position A position of the board.
+     * @return true if the current player may play there.
+     */
+    boolean isPossibleMove(Position position) {
+        return gameState == GameState.RUNNING && possibleMove.contains(position);
+    }
+
     /**
      * @author : Sami EL YAGHMOURI (2024)
      * @return the colortoken of the current player.
@@ -232,6 +281,25 @@ public class Game {
         return board.getMaxMove();
     }
 
+    /**
+     * @author : Alec Waumans (2025)
+     * @return the size of the board.
+     */
+    public int getSize() {
+        return board.getSize();
+    }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * Returns a copy of the board, for the search strategies to play and take
+     * back moves on it without touching the game.
+     *
+     * @return a copy of the current board.
+     */
+    public Board copyBoard() {
+        return new Board(board);
+    }
+
     /**
      * @author : Alec Waumans (2025) 
      * Builds and returns the current complete
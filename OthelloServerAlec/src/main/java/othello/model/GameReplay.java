@@ -0,0 +1,93 @@
+package othello.model;
+
+/**
+ * Author: Alec Waumans (2025)
+ * Plays a game again from its move log.
+ *
+ * <p>The move log of a game is the list of what happened to it, one int per
+ * event: the square played (x * size + y), or {@link #SURRENDER},
+ * {@link #UNDO} or {@link #REDO}. A {@link Game} fires each event to its
+ * observers as the property {@link #PROPERTY}.
+ *
+ * <p>The events are played on a new game of the same size, one at a time, so
+ * that a log can be read as a stream and stopped at any position.
+ */
+public final class GameReplay {
+
+    /** Name of the property fired by a {@link Game} for each event. */
+    public static final String PROPERTY = "Move";
+
+    /** The current player surrendered. */
+    public static final int SURRENDER = -1;
+
+    /** The last move was taken back. */
+    public static final int UNDO = -2;
+
+    /** The last move taken back was played again. */
+    public static final int REDO = -3;
+
+    private final Game game;
+    private final int size;
+    private int events;
+
+    /**
+     * Constructs the replay of a game at its starting position.
+     *
+     * @param size The size of the board of the game.
+     */
+    public GameReplay(int size) {
+        this.game = new Game(size);
+        this.size = size;
+    }
+
+    /**
+     * Plays the next event of the log.
+     *
+     * @param event The event: a square, {@link #SURRENDER}, {@link #UNDO} or
+     * {@link #REDO}.
+     * @throws IllegalArgumentException If the event cannot happen in the
+     * current position: the log does not belong to this game.
+     */
+    public void apply(int event) {
+        switch (event) {
+            case SURRENDER ->
+                game.addPiece(null, true);
+            case UNDO ->
+                game.undoGame();
+            case REDO ->
+                game.redoGame();
+            default -> {
+                if (event < 0 || event >= size * size) {
+                    throw new IllegalArgumentException("event " + event + " at " + events);
+                }
+                Position position = Position.of(event / size, event % size);
+                if (!game.isPossibleMove(position)) {
+                    throw new IllegalArgumentException("illegal move " + position + " at " + events);
+                }
+                game.addPiece(position, false);
+            }
+        }
+        events++;
+    }
+
+    /**
+     * @return the number of events played.
+     */
+    public int getEvents() {
+        return events;
+    }
+
+    /**
+     * @return the state of the game after the events played.
+     */
+    public State getState() {
+        return game.getCurrentState();
+    }
+
+    /**
+     * @return the logical state of the game after the events played.
+     */
+    public GameState getGameState() {
+        return game.getGameState();
+    }
+}
@@ -0,0 +1,107 @@
+package othello.model;
+
+import java.util.Arrays;
+
+/**
+ * Author: Alec Waumans (2025)
+ * History of the moves of a {@link Game}, for undo and redo.
+ *
+ * <p>Each move is kept as its square, its color and the bitboard of the discs
+ * it took over, packed in one array of longs: a move of a 15x15 game takes 5
+ * longs, instead of two lists with every disc of the board. Undoing a move
+ * clears its square and flips its discs back, redoing it does the opposite,
+ * so both cost the number of discs flipped.
+ *
+ * <p>The moves done come first in the array and the moves undone after them,
+ * so that they can be redone; a new move forgets the moves undone.
+ */
+final class MoveHistory {
+
+    // Square of a surrender, which changes no disc.
+    static final int NO_SQUARE = -1;
+
+    private final int words;
+    private final int stride;
+    private long[] data;
+    private int done;
+    private int total;
+
+    /**
+     * @param words The number of longs of a set of squares of the board, see
+     * {@link Board#getWords()}.
+     */
+    MoveHistory(int words) {
+        this.words = words;
+        this.stride = words + 1;
+        this.data = new long[16 * stride];
+    }
+
+    /**
+     * Records a move and forgets the moves undone.
+     *
+     * @param square The square played, or {@link #NO_SQUARE}.
+     * @param colorToken The color that played.
+     * @param flips The discs taken over.
+     */
+    void push(int square, ColorToken colorToken, long[] flips) {
+        if ((done + 1) * stride > data.length) {
+            data = Arrays.copyOf(data, 2 * data.length);
+        }
+        int offset = done * stride;
+        data[offset] = ((long) square << 1) | colorToken.ordinal();
+        System.arraycopy(flips, 0, data, offset + 1, words);
+        total = ++done;
+    }
+
+    /**
+     * @return true if a move can be undone.
+     */
+    boolean canUndo() {
+        return done > 0;
+    }
+
+    /**
+     * @return true if a move can be redone.
+     */
+    boolean canRedo() {
+        return done < total;
+    }
+
+    /**
+     * @return the index of the move to take back, which becomes undone.
+     */
+    int undo() {
+        return --done;
+    }
+
+    /**
+     * @return the index of the move to play again, which becomes done.
+     */
+    int redo() {
+        return done++;
+    }
+
+    /**
+     * @param move The index of a move.
+     * @return the square played, or {@link #NO_SQUARE}.
+     */
+    int getSquare(int move) {
+        return (int) (data[move * stride] >> 1);
+    }
+
+    /**
+     * @param move The index of a move.
+     * @return the color that played.
+     */
+    ColorToken getColor(int move) {
+        return ColorToken.values()[(int) (data[move * stride] & 1)];
+    }
+
+    /**
+     * @param move The index of a move.
+     * @param flips Receives the discs taken over.
+     */
+    void getFlips(int move, long[] flips) {
+        System.arraycopy(data, move * stride + 1, flips, 0, words);
+    }
+}
@@ -1,33 +1,69 @@
 package othello.model;
 
-import java.util.Objects;
-
 /**
- * @author : Sami EL YAGHMOURI (2024)
+ * @author : Sami EL YAGHMOURI (2024) & Alec Waumans (2025)
  * Represents a position on the game board.
+ *
+ * <p>Alec : positions are immutable and interned. {@link #of(int, int)} returns
+ * the same instance for the same coordinates, and {@link #table(int)} gives
+ * the positions of a board indexed by square ({@code x * size + y}), so the
+ * board never allocates a position while playing.
  */
-public class Position {
-    private int x;
-    private int y;
+public final class Position {
+
+    // POSITIONS[x][y] for every square of the biggest board.
+    private static final Position[][] POSITIONS
+            = new Position[Constants.maxSizeBoard][Constants.maxSizeBoard];
+    // TABLES[size][x * size + y] for every allowed board size.
+    private static final Position[][] TABLES = new Position[Constants.maxSizeBoard + 1][];
+
+    static {
+        for (int x = 0; x < Constants.maxSizeBoard; x++) {
+            for (int y = 0; y < Constants.maxSizeBoard; y++) {
+                POSITIONS[x][y] = new Position(x, y);
+            }
+        }
+        for (int size = Constants.minSizeBoard; size <= Constants.maxSizeBoard; size++) {
+            Position[] table = new Position[size * size];
+            for (int square = 0; square < table.length; square++) {
+                table[square] = POSITIONS[square / size][square % size];
+            }
+            TABLES[size] = table;
+        }
+    }
+
+    private final int x;
+    private final int y;
+
+    private Position(int x, int y) {
+        this.x = x;
+        this.y = y;
+    }
 
     /**
-     * Constructs a new Position object with the specified coordinates.
+     * Returns the position with the specified coordinates. Positions inside the
+     * biggest board are shared; others (e.g. an invalid move sent by a client)
+     * are created on demand.
      *
      * @param x The x-coordinate.
      * @param y The y-coordinate.
+     * @return the position (x, y).
      */
-    public Position(int x, int y) {
-        this.x = x;
-        this.y = y;
+    public static Position of(int x, int y) {
+        if (x >= 0 && x < Constants.maxSizeBoard && y >= 0 && y < Constants.maxSizeBoard) {
+            return POSITIONS[x][y];
+        }
+        return new Position(x, y);
     }
 
     /**
-     * Constructs a new Position object by copying another Position object.
+     * Returns the positions of a board of the given size, indexed by square.
      *
-     * @param position The Position object to copy.
+     * @param size The size of the board.
+     * @return a shared array; it must not be modified.
      */
-    public Position(Position position) {
-        this(position.getX(), position.getY());
+    static Position[] table(int size) {
+        return TABLES[size];
     }
 
     public int getX() {
@@ -38,24 +74,11 @@ public class Position {
         return y;
     }
 
-    /**
-     * Moves the position by the specified offsets.
-     *
-     * @param x The offset in the x-direction.
-     * @param y The offset in the y-direction.
-     */
-    void movePosition(int x, int y) {
-        this.x += x;
-        this.y += y;
-    }
-
-
     @Override
     public String toString() {
         return "(" + x + ", " + y + ")";
     }
 
-
     @Override
     public boolean equals(Object object) {
         if (this == object) return true;
@@ -66,6 +89,6 @@ public class Position {
 
     @Override
     public int hashCode() {
-        return Objects.hash(x, y);
+        return 31 * x + y;
     }
 }
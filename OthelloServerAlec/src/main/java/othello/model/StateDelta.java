@@ -0,0 +1,81 @@
+package othello.model;
+
+/**
+ * Author: Alec Waumans (2025)
+ * Changes of a {@link Game} since the previous ones were taken (see
+ * {@link Game#takeChanges()}), with the possible moves, the score and the
+ * state of the game after them.
+ *
+ * <p>The squares are sets of the board: the square {@code x * size + y} is the
+ * bit {@code square % 64} of the long {@code square / 64}.
+ */
+public final class StateDelta {
+
+    private final int size;
+    private final long[] blackTokens;
+    private final long[] whiteTokens;
+    private final long[] emptied;
+    private final long[] possibleMove;
+    private final int[] score;
+    private final ColorToken nextColor;
+    private final GameState gameState;
+
+    StateDelta(int size, long[] blackTokens, long[] whiteTokens, long[] emptied,
+            long[] possibleMove, int[] score, ColorToken nextColor, GameState gameState) {
+        this.size = size;
+        this.blackTokens = blackTokens;
+        this.whiteTokens = whiteTokens;
+        this.emptied = emptied;
+        this.possibleMove = possibleMove;
+        this.score = score;
+        this.nextColor = nextColor;
+        this.gameState = gameState;
+    }
+
+    /**
+     * @return the size of the board.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the changed squares now black.
+     */
+    public long[] getBlackTokens() {
+        return blackTokens;
+    }
+
+    /**
+     * @return the changed squares now white.
+     */
+    public long[] getWhiteTokens() {
+        return whiteTokens;
+    }
+
+    /**
+     * @return the changed squares now empty.
+     */
+    public long[] getEmptied() {
+        return emptied;
+    }
+
+    /**
+     * @return the squares where the current player may play.
+     */
+    public long[] getPossibleMove() {
+        return possibleMove;
+    }
+
+    public int[] getScore() {
+        return score;
+    }
+
+    public ColorToken getNextColor() {
+        return nextColor;
+    }
+
+    public GameState getGameState() {
+        return gameState;
+    }
+}
@@ -0,0 +1,81 @@
+package othello.model;
+
+/**
+ * Author: Alec Waumans (2025)
+ * The 8 symmetries of a square board: the identity, the rotations and the
+ * reflections.
+ *
+ * <p>Symmetry {@code s} first transposes the board if bit 2 of s is set,
+ * then mirrors the rows if bit 0 is set and the columns if bit 1 is set.
+ * Positions that are symmetric to each other play the same, which is why
+ * {@link Board#getCanonicalHash(ColorToken)} gives them the same hash.
+ */
+public final class Symmetry {
+
+    /** Number of symmetries of a square board. */
+    public static final int COUNT = 8;
+
+    // SQUARES[size][s][square] and INVERSE[size][s][square], built once per size.
+    private static final int[][][] SQUARES = new int[Constants.maxSizeBoard + 1][][];
+    private static final int[][][] INVERSE = new int[Constants.maxSizeBoard + 1][][];
+
+    static {
+        for (int size = 1; size <= Constants.maxSizeBoard; size++) {
+            int squares = size * size;
+            SQUARES[size] = new int[COUNT][squares];
+            INVERSE[size] = new int[COUNT][squares];
+            for (int s = 0; s < COUNT; s++) {
+                for (int square = 0; square < squares; square++) {
+                    int image = transform(size, s, square);
+                    SQUARES[size][s][square] = image;
+                    INVERSE[size][s][image] = square;
+                }
+            }
+        }
+    }
+
+    private Symmetry() {
+    }
+
+    /**
+     * @param size The size of the board.
+     * @param symmetry The symmetry, from 0 to 7.
+     * @param square The square {@code x * size + y}.
+     * @return the image of the square by the symmetry.
+     */
+    public static int apply(int size, int symmetry, int square) {
+        return SQUARES[size][symmetry][square];
+    }
+
+    /**
+     * @param size The size of the board.
+     * @param symmetry The symmetry, from 0 to 7.
+     * @param square The image of a square by the symmetry.
+     * @return the square whose image it is.
+     */
+    public static int revert(int size, int symmetry, int square) {
+        return INVERSE[size][symmetry][square];
+    }
+
+    // Image of every square by every symmetry of a board of that size.
+    static int[][] table(int size) {
+        return SQUARES[size];
+    }
+
+    private static int transform(int size, int symmetry, int square) {
+        int x = square / size;
+        int y = square % size;
+        if ((symmetry & 4) != 0) {
+            int swap = x;
+            x = y;
+            y = swap;
+        }
+        if ((symmetry & 1) != 0) {
+            x = size - 1 - x;
+        }
+        if ((symmetry & 2) != 0) {
+            y = size - 1 - y;
+        }
+        return x * size + y;
+    }
+}
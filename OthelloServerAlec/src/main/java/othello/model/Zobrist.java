@@ -0,0 +1,40 @@
+package othello.model;
+
+import java.util.SplittableRandom;
+
+/**
+ * Author: Alec Waumans (2025)
+ * Random keys used to hash a board (Zobrist hashing).
+ *
+ * <p>The hash of a board is the XOR of the key of its size and of the key of
+ * every disc, so playing or taking back a move only XORs the keys of the
+ * squares it changes. The seed is fixed: a position has the same hash from
+ * one run of the server to the next.
+ */
+final class Zobrist {
+
+    private static final int SQUARES = Constants.maxSizeBoard * Constants.maxSizeBoard;
+
+    // DISC[color][square], color following ColorToken.ordinal().
+    static final long[][] DISC = new long[2][SQUARES];
+    // FLIP[square] = DISC[BLACK][square] ^ DISC[WHITE][square]: a disc changing color.
+    static final long[] FLIP = new long[SQUARES];
+    static final long[] SIZE = new long[Constants.maxSizeBoard + 1];
+    static final long WHITE_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x07E110L);
+        for (int square = 0; square < SQUARES; square++) {
+            DISC[0][square] = random.nextLong();
+            DISC[1][square] = random.nextLong();
+            FLIP[square] = DISC[0][square] ^ DISC[1][square];
+        }
+        for (int size = 0; size < SIZE.length; size++) {
+            SIZE[size] = random.nextLong();
+        }
+        WHITE_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+}
@@ -3,9 +3,12 @@ package server;
 import java.io.*;
 import java.net.*;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 import java.util.Observable;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The <code> AbstractServer </code> class maintains a thread that waits for
@@ -32,10 +35,38 @@ import java.util.Observable;
  * @see com.lloseng.ocsf.server.ConnectionToClient
  * @see com.lloseng.ocsf.server.AbstractConnectionFactory
  * 
- * Alec : The only methode i add is the last one all of other code is not change. 
+ * Alec : The only methode i add is the last one. The other change is that
+ * the messages are no more handled under one lock for the whole server: each
+ * connection thread handles its own messages, and the list of connections is
+ * a concurrent one. The server may also serve its clients with the NIO
+ * transport instead of one thread per client, see {@link Transport}.
  */
 public abstract class AbstractServer extends Observable implements Runnable {
 
+    /**
+     * @author : Alec Waumans (2025)
+     * How the server reads from and writes to its clients. Both speak the same
+     * protocol, so the clients work with either.
+     */
+    public enum Transport {
+        /** One thread per client, blocked in the reading of its messages. */
+        THREAD,
+        /**
+         * One selector thread for every client and a small pool of threads
+         * handling their messages (see {@link NioTransport}).
+         */
+        NIO;
+
+        /**
+         * @return the transport set with -Dothello.server.transport (thread or
+         * nio), the thread transport by default.
+         */
+        public static Transport fromProperty() {
+            String name = System.getProperty("othello.server.transport", "thread");
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
     /**
      * The server socket: listens for clients who want to connect.
      */
@@ -65,11 +96,23 @@ public abstract class AbstractServer extends Observable implements Runnable {
      */
     private int backlog = 10;
 
+    /**
+     * Alec : the transport used from the next call to listen.
+     */
+    private Transport transport = Transport.fromProperty();
+
+    /**
+     * Alec : the NIO transport while the server is open with it, null otherwise.
+     */
+    private volatile NioTransport nio = null;
+
     /**
      * The thread group associated with client threads. Each member of the
-     * thread group is a <code> ConnectionToClient </code>.
+     * thread group is a <code> ConnectionToClient </code>. Alec : a
+     * concurrent set, so a connection is added or removed without copying the
+     * others and any thread reads it without lock.
      */
-    private final List<Thread> threads;
+    private final Set<Thread> threads;
 
     /**
      * Indicates if the listening thread is ready to stop. Set to true by
@@ -84,7 +127,7 @@ public abstract class AbstractServer extends Observable implements Runnable {
      */
     public AbstractServer(int port) {
         this.port = port;
-        threads = new ArrayList<>();
+        threads = ConcurrentHashMap.newKeySet();
     }
 
     /**
@@ -98,6 +141,23 @@ public abstract class AbstractServer extends Observable implements Runnable {
      * socket.
      */
     final public void close() throws IOException {
+        // Alec : the NIO transport closes its clients itself
+        NioTransport current = nio;
+        if (current != null) {
+            stopListening();
+            for (Thread client : getClientConnections()) {
+                try {
+                    ((ConnectionToClient) client).close();
+                } catch (Exception ex) {
+                }
+            }
+            current.close();
+            nio = null;
+            Outbox.logStatistics();
+            serverClosed();
+            return;
+        }
+        // End Alec
         if (serverSocket == null) {
             return;
         }
@@ -125,6 +185,7 @@ public abstract class AbstractServer extends Observable implements Runnable {
             // When thread already dead.
             // When thread already dead.
 
+            Outbox.logStatistics(); // Alec
             serverClosed();
         }
     }
@@ -177,6 +238,10 @@ public abstract class AbstractServer extends Observable implements Runnable {
      * @return true if the server is listening.
      */
     final public boolean isListening() {
+        NioTransport current = nio;
+        if (current != null) {
+            return current.isAccepting();
+        }
         return connectionListener != null && connectionListener.isAlive(); // modified in version 2.31
     }
 
@@ -186,7 +251,7 @@ public abstract class AbstractServer extends Observable implements Runnable {
      * @return true if the server is closed.
      */
     final public boolean isClosed() {
-        return (serverSocket == null);
+        return serverSocket == null && nio == null;
     }
 
     /**
@@ -198,18 +263,29 @@ public abstract class AbstractServer extends Observable implements Runnable {
         return threads.size();
     }
 
+    /**
+     * @author : Alec Waumans (2025)
+     * @return the counters of the messages queued for the clients: queued,
+     * superseded, slow clients disconnected and the most bytes that waited
+     * for one client (see {@link Outbox}).
+     */
+    public String getOutboundStatistics() {
+        return Outbox.statistics();
+    }
+
     /**
      * Returns an array containing the existing client connections. This can be
      * used by concrete subclasses to implement messages that do something with
      * each connection (e.g. kill it, send a message to it etc.). Remember that
      * after this array is obtained, some clients in this migth disconnect. New
      * clients can also connect, these later will not appear in the array.
+     * Alec : a copy of the connections of the moment it is called.
      *
      * @return an array of <code>Thread</code> containing
      * <code>ConnectionToClient</code> instances.
      */
-    synchronized final public List<Thread> getClientConnections() {
-        return Collections.unmodifiableList(threads);
+    final public List<Thread> getClientConnections() {
+        return new ArrayList<>(threads);
     }
 
     /**
@@ -220,6 +296,18 @@ public abstract class AbstractServer extends Observable implements Runnable {
      * socket.
      */
     final public void listen() throws IOException {
+        // Alec : with the NIO transport, the selector thread accepts the clients
+        // and never polls: it sleeps until a client connects or sends something
+        if (transport == Transport.NIO && serverSocket == null) {
+            if (nio == null) {
+                nio = new NioTransport(this, getPort(), backlog);
+                nio.start();
+            } else if (!nio.isAccepting()) {
+                nio.startAccepting();
+            }
+            return;
+        }
+        // End Alec
         if (!isListening()) {
             if (serverSocket == null) {
                 serverSocket = new ServerSocket(getPort(), backlog);
@@ -237,6 +325,28 @@ public abstract class AbstractServer extends Observable implements Runnable {
      */
     final public void stopListening() {
         readyToStop = true;
+        NioTransport current = nio;
+        if (current != null) {
+            current.stopAccepting();
+        }
+    }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * Sets the transport used by the server. The server must be closed and
+     * restarted for the change to be in effect.
+     *
+     * @param transport the transport.
+     */
+    final public void setTransport(Transport transport) {
+        this.transport = Objects.requireNonNull(transport);
+    }
+
+    /**
+     * @return the transport used from the next call to listen.
+     */
+    final public Transport getTransport() {
+        return transport;
     }
 
     /**
@@ -254,12 +364,13 @@ public abstract class AbstractServer extends Observable implements Runnable {
      * Hook method called each time a client disconnects. The client is garantee
      * to be disconnected but the thread is still active until it is
      * asynchronously removed from the thread group. The default implementation
-     * does nothing. The method may be overridden by subclasses but should
-     * remains synchronized. Add debug By AlecWaumans
+     * does nothing. The method may be overridden by subclasses but must be
+     * thread-safe: clients disconnect from their own threads. Add debug By
+     * AlecWaumans
      *
      * @param client the connection with the client.
      */
-    synchronized protected void clientDisconnected(
+    protected void clientDisconnected(
             ConnectionToClient client) {
 
     }
@@ -267,7 +378,7 @@ public abstract class AbstractServer extends Observable implements Runnable {
     /**
      * Hook method called each time an exception is thrown in a
      * ConnectionToClient thread. The method may be overridden by subclasses but
-     * should remains synchronized. Most exceptions will cause the end of the
+     * must be thread-safe. Most exceptions will cause the end of the
      * client's thread except for <code>ClassNotFoundException</code>s received
      * when an object of unknown class is received and for the
      * <code>RuntimeException</code>s that can be thrown by the message handling
@@ -276,7 +387,7 @@ public abstract class AbstractServer extends Observable implements Runnable {
      * @param client the client that raised the exception.
      * @param exception the exception thrown.
      */
-    synchronized protected void clientException(
+    protected void clientException(
             ConnectionToClient client, Throwable exception) {
     }
 
@@ -316,8 +427,10 @@ public abstract class AbstractServer extends Observable implements Runnable {
 
     /**
      * Handles a command sent from one client to the server. This MUST be
-     * implemented by subclasses, who should respond to messages. This method is
-     * called by a synchronized method so it is also implcitly synchronized.
+     * implemented by subclasses, who should respond to messages. Alec : this
+     * method is called by the thread of the client, one message at a time for
+     * a client but concurrently for different clients, so the state shared
+     * between clients must be thread-safe.
      *
      * @param msg the message sent.
      * @param client the connection connected to the client that sent the
@@ -332,14 +445,16 @@ public abstract class AbstractServer extends Observable implements Runnable {
      * messages to all clients. This method can be overriden, but if so it
      * should still perform the general function of sending to all clients,
      * perhaps after some kind of filtering is done. Any exception thrown while
-     * sending the message to a particular client is ignored.
+     * sending the message to a particular client is ignored. Alec : the
+     * message is serialized once for all the clients, see {@link Broadcast}.
      *
      * @param msg Object The message to be sent
      */
     public void sendToAllClients(Object msg) {
-        for (Thread clientThreadList1 : getClientConnections()) {
+        Broadcast broadcast = msg instanceof Broadcast shared ? shared : new Broadcast(msg);
+        for (Thread clientThreadList1 : threads) {
             try {
-                ((ConnectionToClient) clientThreadList1).sendToClient(msg);
+                ((ConnectionToClient) clientThreadList1).sendToClient(broadcast);
             } catch (Exception ex) {
             }
         }
@@ -348,16 +463,16 @@ public abstract class AbstractServer extends Observable implements Runnable {
     /**
      * Receives a command sent from the client to the server. Called by the run
      * method of <code>ConnectionToClient</code> instances that are watching for
-     * messages coming from the server This method is synchronized to ensure
-     * that whatever effects it has do not conflict with work being done by
-     * other threads. The method simply calls the
-     * <code>handleMessageFromClient</code> slot method.
+     * messages coming from the server. The method simply calls the
+     * <code>handleMessageFromClient</code> slot method. Alec : it is no more
+     * synchronized on the whole server: the messages of one client stay in
+     * order because its thread handles them one by one.
      *
      * @param msg the message sent.
      * @param client the connection connected to the client that sent the
      * message.
      */
-    final synchronized void receiveMessageFromClient(
+    final void receiveMessageFromClient(
             Object msg, ConnectionToClient client) {
         this.handleMessageFromClient(msg, client);
     }
@@ -382,9 +497,16 @@ public abstract class AbstractServer extends Observable implements Runnable {
                     // the data exchange, then add it to thread group
                     synchronized (this) {
                         if (!readyToStop) {
-                            ConnectionToClient client = new ConnectionToClient(
-                                    clientSocket, this);
-                            this.threads.add(client);
+                            // Alec : a client failing its handshake does not
+                            // stop the server, the connection is closed
+                            try {
+                                ConnectionToClient client = new ConnectionToClient(
+                                        clientSocket, this);
+                                this.threads.add(client);
+                            } catch (IOException exception) {
+                                clientSocket.close();
+                            }
+                            // End Alec
                         }
                     }
                 } catch (InterruptedIOException exception) {
@@ -409,8 +531,18 @@ public abstract class AbstractServer extends Observable implements Runnable {
      * Alec : i had this methode like this i am sure to not have a deadClient on the list of threads. 
      * @param client 
      */
-    protected synchronized void removeConnection(ConnectionToClient client) {
+    protected void removeConnection(ConnectionToClient client) {
         threads.remove(client);
     }
 
+    /**
+     * @author : Alec Waumans (2025)
+     * Adds a connection accepted by the NIO transport.
+     *
+     * @param client the new connection.
+     */
+    void addConnection(ConnectionToClient client) {
+        threads.add(client);
+    }
+
 }
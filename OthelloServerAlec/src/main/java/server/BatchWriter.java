@@ -0,0 +1,228 @@
+package server;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Author: Alec Waumans (2025)
+ * Saves the records of the games (scores, moves) behind the moves.
+ *
+ * <p>The game threads only queue the records; one writer thread inserts them
+ * in batches, one transaction per batch (see {@link Sink}). A batch is
+ * written when it is full, or when its first record has waited
+ * {@link #LINGER_MILLIS}. The records are written in the order they were
+ * queued, so the turns of a game stay in order.
+ *
+ * <p>When the queue is full, the game thread waits for the writer: the moves
+ * slow down instead of losing their records.
+ *
+ * @param <T> The type of the records.
+ */
+public final class BatchWriter<T> {
+
+    /**
+     * Inserts a batch of records in one transaction.
+     *
+     * @param <T> The type of the records.
+     */
+    @FunctionalInterface
+    public interface Sink<T> {
+
+        /**
+         * @param records The records, in the order they were queued.
+         * @throws SQLException If the batch cannot be inserted; none of its
+         * records is inserted then.
+         */
+        void insertAll(List<T> records) throws SQLException;
+    }
+
+    /** Records waiting for each writer, set with -Dothello.db.queue. */
+    static final int QUEUE_CAPACITY = Math.max(1, Integer.getInteger("othello.db.queue", 4096));
+
+    /** Most records per transaction, set with -Dothello.db.batch. */
+    static final int BATCH_SIZE = Math.max(1, Integer.getInteger("othello.db.batch", 128));
+
+    /** Longest wait for a batch to fill, set with -Dothello.db.lingerMillis. */
+    static final long LINGER_MILLIS = Math.max(0, Long.getLong("othello.db.lingerMillis", 50));
+
+    private static final Logger LOGGER = Logger.getLogger(BatchWriter.class.getName());
+
+    private final String name;
+    private final Sink<T> sink;
+    private final BlockingQueue<T> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writer;
+    private volatile boolean closed;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong stalls = new AtomicLong();
+
+    /**
+     * Constructs the writer and starts its thread.
+     *
+     * @param name The name of the records, for the logs.
+     * @param sink Inserts the batches.
+     */
+    public BatchWriter(String name, Sink<T> sink) {
+        this.name = name;
+        this.sink = sink;
+        writer = new Thread(this::run, "othello-" + name + "-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a record, waiting for room if the queue is full. Once the writer
+     * is closed, the record is inserted at once.
+     *
+     * @param record The record to save.
+     */
+    public void submit(T record) {
+        submitted.incrementAndGet();
+        boolean queued = queue.offer(record);
+        if (!queued) {
+            stalls.incrementAndGet();
+            try {
+                // the writer is behind: wait for it
+                while (!queued && !closed && writer.isAlive()) {
+                    queued = queue.offer(record, 100, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // no writer left to take it: queued after its last batch, or it died
+        if (!queued || ((closed || !writer.isAlive()) && queue.remove(record))) {
+            writeAlone(record);
+        }
+    }
+
+    /**
+     * Writes the queued records and stops the writer.
+     *
+     * @param timeoutMillis The longest wait, in milliseconds.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public void close(long timeoutMillis) throws InterruptedException {
+        closed = true;
+        writer.join(timeoutMillis);
+        LOGGER.log(Level.INFO, "{0} writer: {1}", new Object[]{name, this});
+    }
+
+    /**
+     * @return the number of records waiting for the writer.
+     */
+    public int getQueued() {
+        return queue.size();
+    }
+
+    /**
+     * @return the number of records queued since the start.
+     */
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    /**
+     * @return the number of records saved.
+     */
+    public long getWritten() {
+        return written.get();
+    }
+
+    /**
+     * @return the number of records that could not be saved.
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * @return the number of batches written.
+     */
+    public long getBatches() {
+        return batches.get();
+    }
+
+    /**
+     * @return the number of times a game thread waited for room in the queue.
+     */
+    public long getStalls() {
+        return stalls.get();
+    }
+
+    @Override
+    public String toString() {
+        return "submitted=" + getSubmitted() + " written=" + getWritten()
+                + " failed=" + getFailed() + " batches=" + getBatches()
+                + " stalls=" + getStalls() + " queued=" + getQueued();
+    }
+
+    // Writes batches until closed and the queue is empty.
+    private void run() {
+        List<T> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            try {
+                T first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed && queue.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - batch.size());
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(LINGER_MILLIS);
+                while (batch.size() < BATCH_SIZE && !closed) {
+                    long left = deadline - System.nanoTime();
+                    T next = left > 0 ? queue.poll(left, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, BATCH_SIZE - batch.size());
+                }
+            } catch (InterruptedException e) {
+                // keep writing until closed: the records would be lost
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    // One transaction for the batch; record by record if it fails, to keep the good ones.
+    private void write(List<T> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            sink.insertAll(batch);
+            written.addAndGet(batch.size());
+            batches.incrementAndGet();
+        } catch (SQLException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Batch of " + name + " failed, saving the records one by one", e);
+            for (T record : batch) {
+                writeAlone(record);
+            }
+        }
+    }
+
+    private void writeAlone(T record) {
+        try {
+            sink.insertAll(List.of(record));
+            written.incrementAndGet();
+        } catch (SQLException | RuntimeException e) {
+            failed.incrementAndGet();
+            LOGGER.log(Level.SEVERE, "Error saving " + name + ": " + record, e);
+        }
+    }
+}
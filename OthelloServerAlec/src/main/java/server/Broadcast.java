@@ -0,0 +1,86 @@
+package server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import message.BinaryCodec;
+
+/**
+ * Author: Alec Waumans (2025)
+ * A message sent to many clients, serialized once for all of them.
+ *
+ * <p>Each protocol has its own bytes: the binary frame (see
+ * {@link BinaryCodec}), or the bytes a Java stream writes after a reset. They
+ * are computed by the first client that needs them, then the same array is
+ * written to every other client; it is never modified.
+ *
+ * <p>A broadcast can be given to {@link ConnectionToClient#sendToClient} like
+ * any message; {@link AbstractServer#sendToAllClients} makes one itself.
+ */
+public final class Broadcast {
+
+    // Bytes a stream header takes, before the first object.
+    private static final int STREAM_HEADER = 4;
+
+    private final Object message;
+    private volatile byte[] frame;
+    private volatile byte[] stream;
+
+    /**
+     * @param message The message to send.
+     */
+    public Broadcast(Object message) {
+        this.message = message;
+    }
+
+    /**
+     * @return the message sent.
+     */
+    public Object getMessage() {
+        return message;
+    }
+
+    /**
+     * @return the binary frame of the message, length included.
+     * @throws IOException If the message cannot be serialized.
+     */
+    byte[] frame() throws IOException {
+        byte[] bytes = frame;
+        if (bytes == null) {
+            synchronized (this) {
+                bytes = frame;
+                if (bytes == null) {
+                    bytes = BinaryCodec.encode(message);
+                    frame = bytes;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * @return the bytes of the message on a Java stream: a reset, then the
+     * object, as {@link ObjectOutputStream#reset()} and
+     * {@link ObjectOutputStream#writeObject} write them.
+     * @throws IOException If the message cannot be serialized.
+     */
+    byte[] stream() throws IOException {
+        byte[] bytes = stream;
+        if (bytes == null) {
+            synchronized (this) {
+                bytes = stream;
+                if (bytes == null) {
+                    ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+                    try (ObjectOutputStream out = new ObjectOutputStream(buffer)) {
+                        out.reset();
+                        out.writeObject(message);
+                    }
+                    bytes = Arrays.copyOfRange(buffer.toByteArray(), STREAM_HEADER, buffer.size());
+                    stream = bytes;
+                }
+            }
+        }
+        return bytes;
+    }
+}
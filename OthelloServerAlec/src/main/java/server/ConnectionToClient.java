@@ -3,6 +3,15 @@ package server;
 import java.io.*;
 import java.net.*;
 import java.util.*;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import message.BinaryCodec;
 
 /**
  * An instance of this class is created by the server when a client connects. It
@@ -23,6 +32,15 @@ import java.util.*;
  * @author Paul Holden
  * @author Alec Waumans
  * @version august (2025) 
+ *
+ * Alec : with the NIO transport (see {@link NioTransport}), the connection is
+ * served by the selector thread of the server and its own thread is never
+ * started.
+ * Alec : the client chooses between Java serialization and the binary
+ * protocol of {@link BinaryCodec} with the first bytes it sends.
+ * Alec : the messages sent wait in an {@link Outbox}, written to the socket
+ * by a writer thread, so a client slow to read never blocks the sender nor
+ * the other clients. A client whose write blocks too long is disconnected.
  */
 public class ConnectionToClient extends Thread {
 
@@ -45,23 +63,103 @@ public class ConnectionToClient extends Thread {
     private ObjectInputStream input;
 
     /**
-     * Stream used to write to the client.
+     * Stream used to write to the client. Alec : it serializes the messages
+     * into encoded, null with the binary protocol.
      */
     private ObjectOutputStream output;
+    private final ByteArrayOutputStream encoded = new ByteArrayOutputStream(256);
+
+    /**
+     * Alec : the stream of the binary protocol, null with Java serialization.
+     */
+    private DataInputStream frameInput;
+
+    /**
+     * Alec : the stream to the socket, written by the writer thread only.
+     */
+    private OutputStream socketOutput;
 
     /**
      * Indicates if the thread is ready to stop. Set to true when closing of the
      * connection is initiated.
      */
-    private boolean readyToStop;
+    private volatile boolean readyToStop;
 
     /**
      * Map to save information about the client such as its login ID. The
      * initial size of the map is small since it is not expected that concrete
      * servers will want to store many different types of information about each
-     * client. Used by the setInfo and getInfo methods.
+     * client. Used by the setInfo and getInfo methods. Alec : concurrent, since
+     * the other clients and the game threads read it.
+     */
+    private final Map<String, Object> savedInfo = new ConcurrentHashMap<>(10);
+
+    /**
+     * Alec : lock guarding the outbox, held while queuing a message.
+     */
+    private final Object sendLock = new Object();
+
+    /**
+     * Alec : the messages not written yet, and whether a writer thread is
+     * writing them; guarded by sendLock.
+     */
+    private final Outbox outbox = new Outbox();
+    private boolean draining;
+
+    /**
+     * Alec : time a write to a client may block before the client is
+     * disconnected, set with -Dothello.server.writeTimeout; 10 s by default.
+     */
+    static final long WRITE_TIMEOUT_MILLIS = Math.max(1, Long.getLong("othello.server.writeTimeout", 10_000));
+
+    /**
+     * Alec : messages a writer thread writes to a client before queuing the
+     * rest again, so that the thread goes back to the pool between bursts.
+     */
+    private static final int WRITE_BATCH = 64;
+
+    private static final Logger LOGGER = Logger.getLogger(ConnectionToClient.class.getName());
+
+    /**
+     * Alec : the threads writing to the clients of the thread transport, one
+     * at most per client at a time; created when needed, so a client blocked
+     * in a write never delays the others. It keeps its thread until it is
+     * disconnected, when its outbox is full or its write blocked for
+     * {@link #WRITE_TIMEOUT_MILLIS}.
+     */
+    private static final ExecutorService WRITERS = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "othello-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Alec : the connections a writer thread is writing to, watched for
+     * writes blocked too long.
+     */
+    private static final Set<ConnectionToClient> WRITING = ConcurrentHashMap.newKeySet();
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "othello-writer-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        long period = Math.max(1, WRITE_TIMEOUT_MILLIS / 2);
+        WATCHDOG.scheduleWithFixedDelay(ConnectionToClient::closeStalled, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Alec : when the write in progress started, in nanoseconds; 0 when no
+     * write is in progress.
      */
-    private HashMap<String, Object> savedInfo = new HashMap<>(10);
+    private volatile long writingSince;
+
+    /**
+     * Alec : state of the connection served by the NIO transport, null with
+     * the thread transport.
+     */
+    private final NioTransport.Link link;
 
     /**
      * Constructs a new connection to a client.
@@ -75,12 +173,36 @@ public class ConnectionToClient extends Thread {
             AbstractServer server) throws IOException {
         this.clientSocket = clientSocket;
         this.server = server;
+        this.link = null;
 
         clientSocket.setSoTimeout(0); // make sure timeout is infinite
 
         try {
-            input = new ObjectInputStream(clientSocket.getInputStream());
-            output = new ObjectOutputStream(clientSocket.getOutputStream());
+            // Alec : a binary hello or the header of a Java serialization stream
+            InputStream in = new BufferedInputStream(clientSocket.getInputStream());
+            in.mark(BinaryCodec.HELLO_BYTES);
+            int version = BinaryCodec.readHello(in);
+            if (version < 0) {
+                in.reset();
+                input = new ObjectInputStream(in);
+                socketOutput = new BufferedOutputStream(clientSocket.getOutputStream());
+                output = new ObjectOutputStream(encoded);
+                output.flush();
+                encoded.writeTo(socketOutput);
+                socketOutput.flush();
+                encoded.reset();
+            } else {
+                version = BinaryCodec.negotiate(version);
+                OutputStream out = new BufferedOutputStream(clientSocket.getOutputStream());
+                out.write(BinaryCodec.hello(version));
+                out.flush();
+                if (version == 0) {
+                    throw new IOException("binary protocol refused");
+                }
+                frameInput = new DataInputStream(in);
+                socketOutput = out;
+            }
+            // End Alec
         } catch (IOException ex) {
             try {
                 closeAll();
@@ -94,25 +216,48 @@ public class ConnectionToClient extends Thread {
     }
 
     /**
-     * Closes all connection to the server.
+     * @author : Alec Waumans (2025)
+     * Constructs a connection served by the NIO transport. The thread of the
+     * connection is not started: the transport reads and writes for it.
+     *
+     * @param link the state of the connection in the transport.
+     * @param server a reference to the server that created this instance
+     */
+    ConnectionToClient(NioTransport.Link link, AbstractServer server) {
+        this.clientSocket = link.getChannel().socket();
+        this.server = server;
+        this.link = link;
+        readyToStop = false;
+    }
+
+    /**
+     * Closes all connection to the server. Alec : under sendLock, so that a
+     * message is never serialized nor queued with streams half closed.
      *
      * @exception IOException if an I/O error occur when closing the connection.
      */
     private void closeAll() throws IOException {
-        try {
-            if (clientSocket != null) {
-                clientSocket.close();
-            }
-            if (output != null) {
-                output.close();
-            }
-            if (input != null) {
-                input.close();
+        synchronized (sendLock) {
+            try {
+                if (clientSocket != null) {
+                    clientSocket.close();
+                }
+                if (output != null) {
+                    output.close();
+                }
+                if (input != null) {
+                    input.close();
+                }
+                if (socketOutput != null) {
+                    socketOutput.close();
+                }
+            } finally {
+                output = null;
+                input = null;
+                socketOutput = null;
+                frameInput = null;
+                clientSocket = null;
             }
-        } finally {
-            output = null;
-            input = null;
-            clientSocket = null;
         }
     }
 
@@ -133,7 +278,11 @@ public class ConnectionToClient extends Thread {
      * @param info the information itself.
      */
     public void setInfo(String infoType, Object info) {
-        savedInfo.put(infoType, info);
+        if (info == null) {
+            savedInfo.remove(infoType);
+        } else {
+            savedInfo.put(infoType, info);
+        }
     }
 
     /**
@@ -156,6 +305,14 @@ public class ConnectionToClient extends Thread {
      */
     final public void close() throws IOException {
         readyToStop = true; // Set the flag that tells the thread to stop
+
+        // Alec : the NIO transport closes the channel and tells the server
+        if (link != null) {
+            link.close(null);
+            closeAll();
+            return;
+        }
+        // End Alec
         
         // Alec: Force readObject() to throw an exception to speed up thread termination
         try {
@@ -194,17 +351,152 @@ public class ConnectionToClient extends Thread {
      * Sends an object to the client. This method can be overriden, but if so it
      * should still perform the general function of sending to client, by
      * calling the <code>super.sendToClient()</code> method perhaps after some
-     * kind of filtering is done.
+     * kind of filtering is done. Alec : a {@link Broadcast} is sent as its
+     * message, without being serialized again.
      *
      * @param msg the message to be sent.
      * @exception IOException if an I/O error occur when sending the message.
      */
     public void sendToClient(Object msg) throws IOException {
-        if (clientSocket == null || output == null) {
-            throw new SocketException("socket does not exist");
+        if (link != null) {
+            link.send(msg);
+            return;
+        }
+        // Alec : serialized at once, written by a writer thread; a client
+        // with too much waiting is disconnected
+        synchronized (sendLock) {
+            if (clientSocket == null || socketOutput == null) {
+                throw new SocketException("socket does not exist");
+            }
+            if (!outbox.add(ByteBuffer.wrap(encode(msg)), msg)) {
+                try {
+                    closeAll();
+                } catch (IOException e) {
+                }
+                throw new IOException("slow client: " + outbox.bytes() + " bytes waiting");
+            }
+            if (!draining) {
+                draining = true;
+                WRITING.add(this);
+                WRITERS.execute(this::drain);
+            }
+        }
+        // End Alec
+    }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * @return the number of messages waiting to be written to the client.
+     */
+    public int getQueuedMessages() {
+        if (link != null) {
+            return link.getQueuedMessages();
+        }
+        synchronized (sendLock) {
+            return outbox.size();
+        }
+    }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * @return the number of bytes waiting to be written to the client.
+     */
+    public long getQueuedBytes() {
+        if (link != null) {
+            return link.getQueuedBytes();
+        }
+        synchronized (sendLock) {
+            return outbox.bytes();
+        }
+    }
+
+    // Serializes a message with the protocol of the client; under sendLock.
+    private byte[] encode(Object msg) throws IOException {
+        ObjectOutputStream out = output;
+        if (out == null) {
+            return msg instanceof Broadcast broadcast ? broadcast.frame() : BinaryCodec.encode(msg);
+        }
+        if (msg instanceof Broadcast broadcast) {
+            // the bytes of a reset and the message: the stream resets before
+            // its next message anyway
+            return broadcast.stream();
+        }
+        try {
+            out.reset();
+            out.writeObject(msg);
+            out.flush();
+            return encoded.toByteArray();
+        } finally {
+            encoded.reset();
+        }
+    }
+
+    // Writes the messages waiting, on a writer thread, then flushes the
+    // socket once nothing is left. After WRITE_BATCH messages, flushes and
+    // queues itself again behind the other clients.
+    private void drain() {
+        boolean flushed = true;
+        int written = 0;
+        try {
+            while (true) {
+                ByteBuffer buffer;
+                OutputStream out;
+                synchronized (sendLock) {
+                    out = socketOutput;
+                    buffer = written < WRITE_BATCH ? outbox.poll() : null;
+                    if (out == null || (buffer == null && flushed)) {
+                        if (out != null && written >= WRITE_BATCH && outbox.size() > 0) {
+                            WRITERS.execute(this::drain);
+                        } else {
+                            stopDraining();
+                        }
+                        return;
+                    }
+                }
+                writingSince = System.nanoTime();
+                if (buffer == null) {
+                    out.flush();
+                    flushed = true;
+                } else {
+                    written++;
+                    out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+                    flushed = false;
+                }
+                writingSince = 0;
+            }
+        } catch (IOException e) {
+            writingSince = 0;
+            synchronized (sendLock) {
+                stopDraining();
+            }
+            try {
+                closeAll();
+            } catch (IOException ex) {
+            }
+        }
+    }
+
+    // No writer thread writes to the client any more; under sendLock.
+    private void stopDraining() {
+        draining = false;
+        WRITING.remove(this);
+    }
+
+    // Disconnects the clients whose write blocked too long: closing the
+    // socket ends the write and frees the writer thread. Runs on the watchdog.
+    private static void closeStalled() {
+        long now = System.nanoTime();
+        for (ConnectionToClient client : WRITING) {
+            long since = client.writingSince;
+            if (since != 0 && now - since > TimeUnit.MILLISECONDS.toNanos(WRITE_TIMEOUT_MILLIS)) {
+                LOGGER.log(Level.WARNING, "Slow client disconnected: write blocked for more than {0} ms",
+                        WRITE_TIMEOUT_MILLIS);
+                try {
+                    client.closeAll();
+                } catch (IOException e) {
+                }
+            }
         }
-        output.reset();
-        output.writeObject(msg);
     }
 
     /**
@@ -213,7 +505,17 @@ public class ConnectionToClient extends Thread {
      * @return true if the client is connected.
      */
     final public boolean isConnected() {
-        return clientSocket != null && output != null;
+        if (link != null) {
+            return link.isOpen();
+        }
+        return clientSocket != null && socketOutput != null;
+    }
+
+    /**
+     * @return true once the closing of the connection is initiated.
+     */
+    boolean isReadyToStop() {
+        return readyToStop;
     }
 
     /**
@@ -234,7 +536,8 @@ public class ConnectionToClient extends Thread {
                 // and then sends it for handling by the server
                 try {
                     // wait to receive an object
-                    msg = input.readObject();
+                    DataInputStream frames = frameInput;
+                    msg = frames != null ? BinaryCodec.read(frames) : input.readObject();
                     if (!readyToStop && handleMessageFromClient(msg)) {
                         server.receiveMessageFromClient(msg, this);
                     }
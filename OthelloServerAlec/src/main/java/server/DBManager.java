@@ -7,81 +7,158 @@ import java.io.File;
 import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.sqlite.SQLiteConfig;
 
 /**
  * Author: Alec Waumans (2025)
  * SQLite database connection manager.
- * Opens a new connection for each request.
+ * Alec : keeps a small pool of connections instead of opening one for each
+ * request. The connections are opened once, in WAL mode so that the readers
+ * do not wait for the writer, and keep their prepared statements (see
+ * {@link PooledConnection}).
  */
 public class DBManager {
 
+    /** Connections of the pool, set with -Dothello.db.pool. */
+    static final int POOL_SIZE = Math.max(1, Integer.getInteger("othello.db.pool", 4));
+
+    // Longest wait for a free connection, and for a locked database.
+    private static final long ACQUIRE_TIMEOUT_MILLIS = 30_000;
+    private static final int BUSY_TIMEOUT_MILLIS = 5_000;
+
+    private static final BlockingQueue<PooledConnection> IDLE = new LinkedBlockingQueue<>();
+    private static final AtomicInteger OPENED = new AtomicInteger();
+    private static volatile boolean closed;
+
     // Path to the SQLite database file (relative to the project). 
     private static final String DB_PATH = "src/main/resources/sqliteDB/othello.db";
 
     // Classpath resource for the bootstrap SQL script. 
     private static final String INIT_SQL_CLASSPATH = "/sqliteDB/othello.sql";
 
-    // Simple JVM-level lock to serialize sequence increments. 
-    private static final Object SEQ_LOCK = new Object();
+    // Alec : the sequences in use, each handing out its ids from memory
+    private static final Map<String, IdAllocator> SEQUENCES = new ConcurrentHashMap<>();
 
     // Static initializer: ensure DB exists and is initialized once
     static {
         ensureDatabaseInitialized();
+        migrateDatabase();
     }
 
     /**
-     * Returns a new JDBC connection to the SQLite database.
+     * Opens a new JDBC connection to the SQLite database.
      * Enables foreign key constraints.
+     * Alec : and the write-ahead log, with the fsync at checkpoints only, which
+     * keeps the database consistent after a crash.
      */
-    public static Connection getConnection() throws SQLException {
+    private static Connection openConnection() throws SQLException {
         SQLiteConfig config = new SQLiteConfig();
         config.enforceForeignKeys(true);
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        config.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        config.setBusyTimeout(BUSY_TIMEOUT_MILLIS);
         return DriverManager.getConnection("jdbc:sqlite:" + DB_PATH, config.toProperties());
     }
 
     /**
-     * Retrieves and increments the value of a named sequence in a safe manner.
-     * Uses a short transaction + a JVM lock to avoid races under concurrency.
+     * @author : Alec Waumans (2025)
+     * Borrows a connection of the pool, opening it if the pool is not full
+     * yet, or waiting for one to be given back. Close it to give it back.
+     *
+     * @return the connection.
+     * @throws SQLException If the connection cannot be opened, or none was
+     * given back in time.
      */
-    public static int getNextId(String name) throws SQLException {
-        synchronized (SEQ_LOCK) {
-            try (Connection conn = getConnection()) {
-                conn.setAutoCommit(false);
-
-                int current;
-                try (var sel = conn.prepareStatement("SELECT value FROM SEQUENCE WHERE name = ?")) {
-                    sel.setString(1, name);
-                    try (var rs = sel.executeQuery()) {
-                        if (!rs.next()) {
-                            conn.rollback();
-                            throw new SQLException("Sequence not found: " + name);
-                        }
-                        current = rs.getInt("value");
-                    }
+    public static PooledConnection acquire() throws SQLException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ACQUIRE_TIMEOUT_MILLIS);
+        while (true) {
+            if (closed) {
+                throw new SQLException("database closed");
+            }
+            PooledConnection conn = IDLE.poll();
+            if (conn == null && OPENED.incrementAndGet() <= POOL_SIZE) {
+                try {
+                    conn = new PooledConnection(openConnection());
+                } catch (SQLException | RuntimeException e) {
+                    OPENED.decrementAndGet();
+                    throw e;
                 }
-
-                int next = current + 1;
-
-                try (var upd = conn.prepareStatement("UPDATE SEQUENCE SET value = ? WHERE name = ?")) {
-                    upd.setInt(1, next);
-                    upd.setString(2, name);
-                    upd.executeUpdate();
+            } else if (conn == null) {
+                OPENED.decrementAndGet();
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    throw new SQLException("no database connection available");
                 }
+                try {
+                    // wake up now and then: a broken connection frees a place
+                    conn = IDLE.poll(Math.min(left, TimeUnit.MILLISECONDS.toNanos(100)),
+                            TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("interrupted while waiting for a connection", e);
+                }
+                if (conn == null) {
+                    continue;
+                }
+            }
+            conn.borrow();
+            return conn;
+        }
+    }
 
-                conn.commit();
-                conn.setAutoCommit(true);
-                return next;
-            } catch (SQLException e) {
-                throw e;
+    /**
+     * Takes back a connection closed by its borrower.
+     *
+     * @param conn The connection.
+     * @param usable False if the connection is broken.
+     */
+    static void release(PooledConnection conn, boolean usable) {
+        if (usable && !closed) {
+            IDLE.add(conn);
+            if (!closed) {
+                return;
+            }
+            // closed meanwhile: shutdown may have missed it
+            if (!IDLE.remove(conn)) {
+                return;
             }
         }
+        conn.discard();
+        OPENED.decrementAndGet();
     }
 
+    /**
+     * @author : Alec Waumans (2025)
+     * Closes the connections of the pool. The connections still borrowed are
+     * closed when given back.
+     */
+    public static void shutdown() {
+        closed = true;
+        PooledConnection conn;
+        while ((conn = IDLE.poll()) != null) {
+            conn.discard();
+            OPENED.decrementAndGet();
+        }
+    }
 
+    /**
+     * Retrieves and increments the value of a named sequence in a safe manner.
+     * Alec : the ids come from blocks reserved in the database, see
+     * {@link IdAllocator}, instead of one transaction under a JVM lock per id.
+     */
+    public static int getNextId(String name) throws SQLException {
+        return SEQUENCES.computeIfAbsent(name, IdAllocator::new).next();
+    }
 
     // Ensure the DB file exists; if not, create it by running othello.sql from resources. 
     private static void ensureDatabaseInitialized() {
@@ -92,7 +169,7 @@ public class DBManager {
         // Make sure parent directory exists (if running from a clean workspace)
         dbFile.getParentFile().mkdirs();
 
-        try (Connection conn = getConnection()) {
+        try (Connection conn = openConnection()) {
             runSqlScriptFromClasspath(conn, INIT_SQL_CLASSPATH);
             System.out.println("[DBManager] Database initialized from " + INIT_SQL_CLASSPATH);
         } catch (Exception e) {
@@ -101,6 +178,43 @@ public class DBManager {
         }
     }
 
+    // Alec : adds the move log and the reset counters to the databases created before them;
+    // does nothing on the others.
+    private static void migrateDatabase() {
+        try (Connection conn = openConnection(); Statement st = conn.createStatement()) {
+            st.executeUpdate("CREATE TABLE IF NOT EXISTS MOVE ("
+                    + "game_id INTEGER NOT NULL, num INTEGER NOT NULL, event INTEGER NOT NULL, "
+                    + "PRIMARY KEY(game_id, num), FOREIGN KEY(game_id) REFERENCES GAME(id)"
+                    + ") WITHOUT ROWID");
+            boolean hasSize = false;
+            try (ResultSet rs = st.executeQuery("PRAGMA table_info(GAME)")) {
+                while (rs.next()) {
+                    hasSize |= "size".equalsIgnoreCase(rs.getString("name"));
+                }
+            }
+            if (!hasSize) {
+                st.executeUpdate("ALTER TABLE GAME ADD COLUMN size INTEGER");
+            }
+            boolean hasResetCount;
+            try (ResultSet rs = st.executeQuery(
+                    "SELECT name FROM sqlite_master WHERE type = 'table' AND name = 'RESET_COUNT'")) {
+                hasResetCount = rs.next();
+            }
+            if (!hasResetCount) {
+                // counted once from the resets already saved, then kept up to date by ResetDAO
+                conn.setAutoCommit(false);
+                st.executeUpdate("CREATE TABLE RESET_COUNT ("
+                        + "player INTEGER PRIMARY KEY, count INTEGER NOT NULL)");
+                st.executeUpdate("INSERT INTO RESET_COUNT(player, count) "
+                        + "SELECT player, COUNT(*) FROM RESET WHERE player IS NOT NULL GROUP BY player");
+                conn.commit();
+            }
+        } catch (Exception e) {
+            System.err.println("[DBManager] Failed to migrate database: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     // Load and execute a SQL script bundled in resources.
     private static void runSqlScriptFromClasspath(Connection conn, String resourcePath) throws Exception {
         try (InputStream in = DBManager.class.getResourceAsStream(resourcePath)) {
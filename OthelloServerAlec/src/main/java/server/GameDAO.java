@@ -16,32 +16,52 @@ public class GameDAO {
      *
      * @param userId     The ID of the user who started the game.
      * @param timeStart  The starting time of the game, as a String (e.g., "2025-08-10 14:30:00").
+     * @param size       The size of the board, to replay the game from its moves (Alec).
      * @return The auto-generated game ID from the database.
      * @throws SQLException if there is an error executing the SQL statement or retrieving the generated key.
      */
-    public static int insertGame(int userId, String timeStart) throws SQLException {
+    public static int insertGame(int userId, String timeStart, int size) throws SQLException {
         
         // SQL query for inserting a new game record
-        String insert = "INSERT INTO GAME(user_id, timeStart) VALUES (?, ?)";
+        String insert = "INSERT INTO GAME(user_id, timeStart, size) VALUES (?, ?, ?)";
 
-        // Use try-with-resources to ensure the connection and statement are automatically closed
-        try (
-            Connection conn = DBManager.getConnection(); // Get a connection from the database manager
-            PreparedStatement stmt = conn.prepareStatement(insert, Statement.RETURN_GENERATED_KEYS) // Allow retrieval of generated keys
-        ) {
+        // Alec : the connection is borrowed from the pool and keeps the statement prepared
+        try (PooledConnection conn = DBManager.acquire()) {
+            PreparedStatement stmt = conn.prepare(insert, Statement.RETURN_GENERATED_KEYS); // Allow retrieval of generated keys
             // Set the query parameters
             stmt.setInt(1, userId);     // First placeholder: user_id
             stmt.setString(2, timeStart); // Second placeholder: timeStart
+            stmt.setInt(3, size);
 
             // Execute the insert operation
             stmt.executeUpdate();
 
             // Retrieve the auto-generated game ID from the database
-            ResultSet rs = stmt.getGeneratedKeys();
-            if (rs.next()) {
-                return rs.getInt(1); // Return the first generated key (game ID)
-            } else {
-                throw new SQLException("Failed to retrieve the generated game ID.");
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                if (rs.next()) {
+                    return rs.getInt(1); // Return the first generated key (game ID)
+                } else {
+                    throw new SQLException("Failed to retrieve the generated game ID.");
+                }
+            }
+        }
+    }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * Finds the size of the board of a game.
+     *
+     * @param gameId The ID of the game.
+     * @return the size, or 0 if the game is unknown or was saved without it.
+     * @throws SQLException if there is an error executing the SQL statement.
+     */
+    public static int findSize(int gameId) throws SQLException {
+        String select = "SELECT size FROM GAME WHERE id = ?";
+        try (PooledConnection conn = DBManager.acquire()) {
+            PreparedStatement stmt = conn.prepare(select);
+            stmt.setInt(1, gameId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt("size") : 0;
             }
         }
     }
@@ -0,0 +1,98 @@
+package server;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Author: Alec Waumans (2025)
+ * Hands out the ids of a named sequence of the SEQUENCE table.
+ *
+ * <p>The ids are reserved from the database by blocks of {@link #BLOCK_SIZE}
+ * in one transaction, then handed out from memory without any lock. Only
+ * the thread that finds the block used up goes to the database again.
+ *
+ * <p>The table keeps the last id reserved, not the last id used: after a
+ * restart the ids left in the last block are skipped, never given twice.
+ */
+final class IdAllocator {
+
+    /** Ids reserved at a time, set with -Dothello.db.idBlock. */
+    static final int BLOCK_SIZE = Math.max(1, Integer.getInteger("othello.db.idBlock", 64));
+
+    private final String name;
+    private volatile Block block = new Block(1, 0);
+
+    /**
+     * @param name The name of the sequence.
+     */
+    IdAllocator(String name) {
+        this.name = name;
+    }
+
+    /**
+     * @return the next id of the sequence.
+     * @throws SQLException If a new block cannot be reserved.
+     */
+    int next() throws SQLException {
+        while (true) {
+            Block current = block;
+            long id = current.next.getAndIncrement();
+            if (id <= current.last) {
+                return (int) id;
+            }
+            synchronized (this) {
+                if (block == current) {
+                    block = reserve();
+                }
+            }
+        }
+    }
+
+    // Moves the sequence forward by one block and returns its ids.
+    private Block reserve() throws SQLException {
+        try (PooledConnection pooled = DBManager.acquire()) {
+            Connection conn = pooled.getConnection();
+            conn.setAutoCommit(false);
+
+            // the update takes the write lock first: no other process can read the same value
+            PreparedStatement upd = pooled.prepare("UPDATE SEQUENCE SET value = value + ? WHERE name = ?");
+            upd.setInt(1, BLOCK_SIZE);
+            upd.setString(2, name);
+            if (upd.executeUpdate() == 0) {
+                throw new SQLException("Sequence not found: " + name);
+            }
+
+            long last;
+            PreparedStatement sel = pooled.prepare("SELECT value FROM SEQUENCE WHERE name = ?");
+            sel.setString(1, name);
+            try (ResultSet rs = sel.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Sequence not found: " + name);
+                }
+                last = rs.getLong("value");
+            }
+            if (last > Integer.MAX_VALUE) {
+                throw new SQLException("Sequence exhausted: " + name);
+            }
+
+            conn.commit();
+            conn.setAutoCommit(true);
+            return new Block(last - BLOCK_SIZE + 1, last);
+        }
+    }
+
+    // Ids from next to last, included.
+    private static final class Block {
+
+        private final AtomicLong next;
+        private final long last;
+
+        Block(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+    }
+}
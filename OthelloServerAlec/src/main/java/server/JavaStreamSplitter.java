@@ -0,0 +1,556 @@
+package server;
+
+import java.io.StreamCorruptedException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.io.ObjectStreamConstants.*;
+
+/**
+ * Author: Alec Waumans (2025)
+ * Finds where each message ends in a Java serialization stream, without
+ * deserializing it, so that the selector thread of {@link NioTransport} only
+ * cuts the stream into messages and the handlers deserialize them.
+ *
+ * <p>The splitter walks the grammar of the stream (see the Java Object
+ * Serialization Specification, chapter 6): it skips the values it reads and
+ * keeps only the layout of the class descriptors, to know the fields of the
+ * objects that follow. Its walk is kept from one call to the next, so the
+ * bytes of a message arriving in many pieces are walked once, not once per
+ * piece.
+ *
+ * <p>Not thread safe: used by the selector thread only.
+ */
+final class JavaStreamSplitter {
+
+    // Steps of the walk.
+    private static final int OBJECT = 0;
+    private static final int CLASS_DESC = 1;
+    private static final int DISCARD = 2;
+    private static final int FIELDS = 3;
+    private static final int INTERFACES = 4;
+    private static final int DESC_END = 5;
+    private static final int ANNOTATION = 6;
+    private static final int NEW_OBJECT = 7;
+    private static final int NEW_CLASS = 8;
+    private static final int NEW_ARRAY = 9;
+    private static final int NEW_ENUM = 10;
+    private static final int CLASS_DATA = 11;
+    private static final int VALUES = 12;
+    private static final int ELEMENTS = 13;
+    private static final int EXCEPTION_END = 14;
+
+    private final int maxLength;
+
+    // The steps left, the next one on top, and the descriptors they read.
+    private final ArrayDeque<Step> steps = new ArrayDeque<>();
+    private final List<Desc> results = new ArrayList<>();
+    // The objects of the stream by handle; only the descriptors are kept.
+    private final List<Desc> handles = new ArrayList<>();
+
+    private byte[] buffer;
+    private int limit;
+    private int pos;
+    private boolean started;
+
+    /**
+     * @param maxLength The longest string, block or array accepted, in bytes.
+     */
+    JavaStreamSplitter(int maxLength) {
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Walks the next message, from where the last call stopped.
+     *
+     * @param buffer The bytes received, the stream header excluded.
+     * @param from The start of the message; the same until the message ends.
+     * @param limit The end of the bytes received.
+     * @return the end of the message, or -1 if its bytes have not all arrived.
+     * @throws StreamCorruptedException If the bytes are not a serialization stream.
+     */
+    int next(byte[] buffer, int from, int limit) throws StreamCorruptedException {
+        this.buffer = buffer;
+        this.limit = limit;
+        if (!started) {
+            pos = from;
+        }
+        while (true) {
+            if (steps.isEmpty()) {
+                if (started) {
+                    started = false;
+                    return pos;
+                }
+                if (pos >= limit) {
+                    return -1;
+                }
+                // the resets written before the message belong to it
+                if (buffer[pos] == TC_RESET) {
+                    pos++;
+                    handles.clear();
+                    continue;
+                }
+                steps.push(new Step(OBJECT, null, 0));
+                started = true;
+            }
+            if (!step(steps.peek())) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Moves the walk after the bytes were moved toward the start of the buffer.
+     *
+     * @param offset The number of bytes they were moved by.
+     */
+    void shift(int offset) {
+        if (started) {
+            pos -= offset;
+        }
+    }
+
+    // Runs a step; false if its bytes have not all arrived.
+    private boolean step(Step step) throws StreamCorruptedException {
+        switch (step.kind) {
+            case OBJECT:
+                return object();
+            case CLASS_DESC:
+                return classDesc();
+            case DISCARD:
+                steps.pop();
+                pop();
+                return true;
+            case FIELDS:
+                return fields(step);
+            case INTERFACES:
+                return interfaces(step);
+            case DESC_END:
+                steps.pop();
+                step.desc.parent = pop();
+                results.add(step.desc);
+                return true;
+            case ANNOTATION:
+                return annotation();
+            case NEW_OBJECT:
+                return newObject();
+            case NEW_CLASS:
+                steps.pop();
+                pop();
+                handles.add(null);
+                return true;
+            case NEW_ARRAY:
+                return newArray();
+            case NEW_ENUM:
+                steps.pop();
+                pop();
+                handles.add(null);
+                steps.push(new Step(OBJECT, null, 0)); // the name of the constant
+                return true;
+            case CLASS_DATA:
+                return classData(step.desc);
+            case VALUES:
+                return values(step);
+            case ELEMENTS:
+                if (step.count == 0) {
+                    steps.pop();
+                } else {
+                    step.count--;
+                    steps.push(new Step(OBJECT, null, 0));
+                }
+                return true;
+            case EXCEPTION_END:
+                steps.pop();
+                handles.clear();
+                return true;
+            default:
+                throw new IllegalStateException("step " + step.kind);
+        }
+    }
+
+    private boolean object() throws StreamCorruptedException {
+        if (pos >= limit) {
+            return false;
+        }
+        switch (buffer[pos]) {
+            case TC_NULL:
+                pos++;
+                steps.pop();
+                return true;
+            case TC_REFERENCE:
+                if (!available(5)) {
+                    return false;
+                }
+                pos += 5;
+                steps.pop();
+                return true;
+            case TC_STRING: {
+                if (!available(3)) {
+                    return false;
+                }
+                int length = readUnsignedShort(pos + 1);
+                if (!available(3 + length)) {
+                    return false;
+                }
+                pos += 3 + length;
+                handles.add(null);
+                steps.pop();
+                return true;
+            }
+            case TC_LONGSTRING: {
+                if (!available(9)) {
+                    return false;
+                }
+                int length = checkLength(readLong(pos + 1));
+                if (!available(9 + length)) {
+                    return false;
+                }
+                pos += 9 + length;
+                handles.add(null);
+                steps.pop();
+                return true;
+            }
+            case TC_OBJECT:
+                return then(NEW_OBJECT);
+            case TC_CLASS:
+                return then(NEW_CLASS);
+            case TC_ARRAY:
+                return then(NEW_ARRAY);
+            case TC_ENUM:
+                return then(NEW_ENUM);
+            case TC_CLASSDESC:
+            case TC_PROXYCLASSDESC:
+                // a descriptor written as an object: read, then forgotten
+                steps.pop();
+                steps.push(new Step(DISCARD, null, 0));
+                steps.push(new Step(CLASS_DESC, null, 0));
+                return true;
+            case TC_EXCEPTION:
+                pos++;
+                handles.clear();
+                steps.pop();
+                steps.push(new Step(EXCEPTION_END, null, 0));
+                steps.push(new Step(OBJECT, null, 0));
+                return true;
+            case TC_RESET:
+                pos++;
+                handles.clear();
+                return true;
+            default:
+                throw corrupted("invalid type code");
+        }
+    }
+
+    // Reads the type code, then the descriptor, then the given step.
+    private boolean then(int kind) {
+        pos++;
+        steps.pop();
+        steps.push(new Step(kind, null, 0));
+        steps.push(new Step(CLASS_DESC, null, 0));
+        return true;
+    }
+
+    private boolean classDesc() throws StreamCorruptedException {
+        if (pos >= limit) {
+            return false;
+        }
+        switch (buffer[pos]) {
+            case TC_NULL:
+                pos++;
+                steps.pop();
+                results.add(null);
+                return true;
+            case TC_REFERENCE: {
+                if (!available(5)) {
+                    return false;
+                }
+                int handle = readInt(pos + 1) - baseWireHandle;
+                if (handle < 0 || handle >= handles.size() || handles.get(handle) == null) {
+                    throw corrupted("invalid class descriptor handle");
+                }
+                pos += 5;
+                steps.pop();
+                results.add(handles.get(handle));
+                return true;
+            }
+            case TC_CLASSDESC: {
+                if (!available(3)) {
+                    return false;
+                }
+                int length = readUnsignedShort(pos + 1);
+                // name, serialVersionUID, flags and number of fields
+                if (!available(3 + length + 8 + 1 + 2)) {
+                    return false;
+                }
+                byte arrayType = length >= 2 && buffer[pos + 3] == '[' ? buffer[pos + 4] : 0;
+                int info = pos + 3 + length + 8;
+                Desc desc = new Desc(arrayType, buffer[info], readUnsignedShort(info + 1));
+                pos = info + 3;
+                handles.add(desc);
+                steps.pop();
+                steps.push(new Step(DESC_END, desc, 0));
+                steps.push(new Step(CLASS_DESC, null, 0)); // the superclass
+                steps.push(new Step(ANNOTATION, null, 0));
+                steps.push(new Step(FIELDS, desc, 0));
+                return true;
+            }
+            case TC_PROXYCLASSDESC: {
+                if (!available(5)) {
+                    return false;
+                }
+                int count = readInt(pos + 1);
+                if (count < 0) {
+                    throw corrupted("invalid number of interfaces");
+                }
+                pos += 5;
+                Desc desc = new Desc((byte) 0, SC_SERIALIZABLE, 0);
+                handles.add(desc);
+                steps.pop();
+                steps.push(new Step(DESC_END, desc, 0));
+                steps.push(new Step(CLASS_DESC, null, 0));
+                steps.push(new Step(ANNOTATION, null, 0));
+                steps.push(new Step(INTERFACES, null, count));
+                return true;
+            }
+            default:
+                throw corrupted("invalid class descriptor");
+        }
+    }
+
+    private boolean fields(Step step) throws StreamCorruptedException {
+        byte[] types = step.desc.types;
+        while (step.count < types.length) {
+            if (!available(3)) {
+                return false;
+            }
+            byte type = buffer[pos];
+            int length = readUnsignedShort(pos + 1);
+            if (!available(3 + length)) {
+                return false;
+            }
+            pos += 3 + length;
+            types[step.count++] = type;
+            if (type == 'L' || type == '[') {
+                steps.push(new Step(OBJECT, null, 0)); // the name of its class
+                return true;
+            }
+            if (width(type) == 0) {
+                throw corrupted("invalid field type");
+            }
+        }
+        steps.pop();
+        return true;
+    }
+
+    private boolean interfaces(Step step) {
+        while (step.count > 0) {
+            if (!available(2)) {
+                return false;
+            }
+            int length = readUnsignedShort(pos);
+            if (!available(2 + length)) {
+                return false;
+            }
+            pos += 2 + length;
+            step.count--;
+        }
+        steps.pop();
+        return true;
+    }
+
+    // Blocks and objects, up to the end of the block data.
+    private boolean annotation() throws StreamCorruptedException {
+        if (pos >= limit) {
+            return false;
+        }
+        switch (buffer[pos]) {
+            case TC_ENDBLOCKDATA:
+                pos++;
+                steps.pop();
+                return true;
+            case TC_BLOCKDATA: {
+                if (!available(2)) {
+                    return false;
+                }
+                int length = buffer[pos + 1] & 0xFF;
+                if (!available(2 + length)) {
+                    return false;
+                }
+                pos += 2 + length;
+                return true;
+            }
+            case TC_BLOCKDATALONG: {
+                if (!available(5)) {
+                    return false;
+                }
+                int length = checkLength(readInt(pos + 1));
+                if (!available(5 + length)) {
+                    return false;
+                }
+                pos += 5 + length;
+                return true;
+            }
+            default:
+                steps.push(new Step(OBJECT, null, 0));
+                return true;
+        }
+    }
+
+    private boolean newObject() throws StreamCorruptedException {
+        steps.pop();
+        Desc desc = pop();
+        if (desc == null) {
+            throw corrupted("object without class");
+        }
+        handles.add(null);
+        // the data of the superclasses first
+        for (Desc current = desc; current != null; current = current.parent) {
+            steps.push(new Step(CLASS_DATA, current, 0));
+        }
+        return true;
+    }
+
+    private boolean classData(Desc desc) throws StreamCorruptedException {
+        steps.pop();
+        if ((desc.flags & SC_EXTERNALIZABLE) != 0) {
+            if ((desc.flags & SC_BLOCK_DATA) == 0) {
+                throw corrupted("externalizable data of the first protocol");
+            }
+            steps.push(new Step(ANNOTATION, null, 0));
+        } else if ((desc.flags & SC_SERIALIZABLE) != 0) {
+            if ((desc.flags & SC_WRITE_METHOD) != 0) {
+                steps.push(new Step(ANNOTATION, null, 0));
+            }
+            steps.push(new Step(VALUES, desc, 0));
+        }
+        return true;
+    }
+
+    private boolean values(Step step) {
+        byte[] types = step.desc.types;
+        while (step.count < types.length) {
+            int width = width(types[step.count]);
+            if (width == 0) {
+                step.count++;
+                steps.push(new Step(OBJECT, null, 0));
+                return true;
+            }
+            if (!available(width)) {
+                return false;
+            }
+            pos += width;
+            step.count++;
+        }
+        steps.pop();
+        return true;
+    }
+
+    private boolean newArray() throws StreamCorruptedException {
+        if (!available(4)) {
+            return false;
+        }
+        Desc desc = results.get(results.size() - 1);
+        if (desc == null || desc.arrayType == 0) {
+            throw corrupted("array without array class");
+        }
+        int length = readInt(pos);
+        if (length < 0) {
+            throw corrupted("invalid array length");
+        }
+        int width = width(desc.arrayType);
+        // the values of primitives are read at once
+        int size = width == 0 ? 0 : checkLength((long) length * width);
+        if (!available(4 + size)) {
+            return false;
+        }
+        pos += 4 + size;
+        steps.pop();
+        pop();
+        handles.add(null);
+        if (width == 0) {
+            steps.push(new Step(ELEMENTS, null, length));
+        }
+        return true;
+    }
+
+    // Bytes of a primitive value, 0 for an object.
+    private static int width(byte type) {
+        switch (type) {
+            case 'B':
+            case 'Z':
+                return 1;
+            case 'C':
+            case 'S':
+                return 2;
+            case 'I':
+            case 'F':
+                return 4;
+            case 'J':
+            case 'D':
+                return 8;
+            default:
+                return 0;
+        }
+    }
+
+    private Desc pop() {
+        return results.remove(results.size() - 1);
+    }
+
+    private boolean available(int count) {
+        return limit - pos >= count;
+    }
+
+    private int checkLength(long length) throws StreamCorruptedException {
+        if (length < 0 || length > maxLength) {
+            throw corrupted("invalid length: " + length);
+        }
+        return (int) length;
+    }
+
+    private int readUnsignedShort(int at) {
+        return ((buffer[at] & 0xFF) << 8) | (buffer[at + 1] & 0xFF);
+    }
+
+    private int readInt(int at) {
+        return (readUnsignedShort(at) << 16) | readUnsignedShort(at + 2);
+    }
+
+    private long readLong(int at) {
+        return ((long) readInt(at) << 32) | (readInt(at + 4) & 0xFFFFFFFFL);
+    }
+
+    private static StreamCorruptedException corrupted(String reason) {
+        return new StreamCorruptedException(reason);
+    }
+
+    // A step of the walk; count is the progress of the loops.
+    private static final class Step {
+
+        final int kind;
+        final Desc desc;
+        int count;
+
+        Step(int kind, Desc desc, int count) {
+            this.kind = kind;
+            this.desc = desc;
+            this.count = count;
+        }
+    }
+
+    // What the walk needs of a class descriptor.
+    private static final class Desc {
+
+        final byte arrayType;
+        final byte flags;
+        final byte[] types;
+        Desc parent;
+
+        Desc(byte arrayType, byte flags, int fields) {
+            this.arrayType = arrayType;
+            this.flags = flags;
+            this.types = new byte[fields];
+        }
+    }
+}
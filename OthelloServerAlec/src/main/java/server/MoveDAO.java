@@ -0,0 +1,111 @@
+package server;
+
+import java.sql.*;
+import java.util.List;
+import othello.model.GameReplay;
+
+/**
+ * Data Access Object (DAO) for the move log of the games.
+ *
+ * Each event of a game (move, surrender, undo, redo) is one row of the MOVE
+ * table, coded as by {@link GameReplay}, so that any position of a game can be
+ * rebuilt by playing its events again.
+ *
+ * Author: Alec Waumans (2025)
+ */
+public class MoveDAO {
+
+    /**
+     * Inserts events into the MOVE table in one transaction, sent to the
+     * database as one batch.
+     *
+     * @param moves The events, in the order they happened.
+     * @throws SQLException if there is an error executing the SQL statement;
+     * no event is inserted then.
+     */
+    public static void insertMoves(List<Move> moves) throws SQLException {
+        if (moves.isEmpty()) {
+            return;
+        }
+        String insert = "INSERT INTO MOVE(game_id, num, event) VALUES (?, ?, ?)";
+
+        // The pooled connection rolls the transaction back if the batch fails
+        try (PooledConnection conn = DBManager.acquire()) {
+            Connection connection = conn.getConnection();
+            connection.setAutoCommit(false);
+            PreparedStatement stmt = conn.prepare(insert);
+            try {
+                for (Move move : moves) {
+                    stmt.setInt(1, move.gameId);
+                    stmt.setInt(2, move.num);
+                    stmt.setInt(3, move.event);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            } finally {
+                stmt.clearBatch();
+            }
+            connection.commit();
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Rebuilds a game from its move log, reading the events one row at a time.
+     *
+     * @param gameId The ID of the game.
+     * @param events The number of events to play, to stop at an earlier
+     * position; {@link Integer#MAX_VALUE} for the whole game.
+     * @return the replay of the game, at the position reached.
+     * @throws SQLException if the game is unknown, was saved without the size
+     * of its board, or its log cannot be played.
+     */
+    public static GameReplay replay(int gameId, int events) throws SQLException {
+        int size = GameDAO.findSize(gameId);
+        if (size <= 0) {
+            throw new SQLException("No move log for game " + gameId);
+        }
+        GameReplay replay = new GameReplay(size);
+        String select = "SELECT event FROM MOVE WHERE game_id = ? AND num <= ? ORDER BY num";
+
+        try (PooledConnection conn = DBManager.acquire()) {
+            PreparedStatement stmt = conn.prepare(select);
+            stmt.setInt(1, gameId);
+            stmt.setInt(2, events);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    replay.apply(rs.getInt(1));
+                }
+            } catch (IllegalArgumentException e) {
+                throw new SQLException("Corrupted move log for game " + gameId, e);
+            }
+        }
+        return replay;
+    }
+
+    /**
+     * An event of a game, waiting to be inserted (see {@link BatchWriter}).
+     */
+    public static final class Move {
+
+        private final int gameId;
+        private final int num;
+        private final int event;
+
+        /**
+         * @param gameId The ID of the game.
+         * @param num    The number of the event in the game, from 1.
+         * @param event  The event, coded as by {@link GameReplay}.
+         */
+        public Move(int gameId, int num, int event) {
+            this.gameId = gameId;
+            this.num = num;
+            this.event = event;
+        }
+
+        @Override
+        public String toString() {
+            return "game " + gameId + " event " + num;
+        }
+    }
+}
@@ -0,0 +1,758 @@
+package server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.EOFException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import message.BinaryCodec;
+
+/**
+ * Author: Alec Waumans (2025)
+ * Transport serving every client from one selector thread, instead of one
+ * thread per {@link ConnectionToClient}.
+ *
+ * <p>The selector thread accepts the connections, cuts what the clients send
+ * into messages and writes what the server could not write at once (see
+ * {@link Outbox}). It never decodes a message nor runs the server code: the
+ * bytes of each message go to the mailbox of its client, and a small pool of
+ * handler threads empties the mailboxes, one message at a time for a given
+ * client, decoding each one before handling it. An idle client thus costs a
+ * few buffers, no thread.
+ *
+ * <p>The selector reads at most {@value #MAX_READ} bytes of a client at each
+ * pass, so that a fast client does not hold the others back, and stops reading
+ * a client whose mailbox holds more than {@link #INBOUND_BYTES} bytes until
+ * the handlers have caught up: the client then waits on TCP flow control.
+ *
+ * <p>The bytes on the wire are the ones of the thread transport: a Java
+ * serialization stream in each direction, reset before every message. A
+ * message is handed to the handlers once all its bytes have arrived (a binary
+ * frame starts with its length; the end of a Java message is found by
+ * {@link JavaStreamSplitter}), and the handlers read the messages of a client
+ * with one stream, as the thread transport does, so the clients
+ * do not know which transport the server uses. The first bytes of a client
+ * tell whether it speaks Java serialization or the binary protocol of
+ * {@link BinaryCodec}; until then, the messages sent to it wait in its link.
+ */
+final class NioTransport implements Runnable {
+
+    /** Threads running the server code, set with -Dothello.server.handlers. */
+    static final int HANDLER_THREADS = Math.max(1, Integer.getInteger("othello.server.handlers",
+            2 * Runtime.getRuntime().availableProcessors()));
+
+    /**
+     * Bytes waiting in the mailbox of a client beyond which it is not read
+     * any more, set with -Dothello.server.inbound; 256 KiB by default.
+     */
+    static final long INBOUND_BYTES = Math.max(1, Long.getLong("othello.server.inbound", 256 * 1024));
+
+    // Largest message accepted from a client, in bytes.
+    private static final int MAX_MESSAGE = 1 << 20;
+    private static final int READ_BUFFER = 16 * 1024;
+    // Bytes read from a client at each pass of the selector.
+    private static final int MAX_READ = 64 * 1024;
+    // What a message costs in a mailbox besides its bytes, roughly.
+    private static final int ENTRY_BYTES = 64;
+    // Magic number and version starting a serialization stream.
+    private static final int STREAM_HEADER = 4;
+
+    // Mailbox entry telling that the client is connected.
+    private static final Object CONNECTED = new Object();
+
+    // Protocols of a link.
+    private static final int UNKNOWN = 0;
+    private static final int JAVA = 1;
+    private static final int BINARY = 2;
+
+    private final AbstractServer server;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final ExecutorService handlers;
+    private final Thread loop;
+    // Work asked by other threads, run by the selector thread.
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    // Used by the selector thread only.
+    private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER);
+
+    private volatile boolean running = true;
+    private volatile boolean accepting;
+    private SelectionKey acceptKey;
+
+    /**
+     * Opens the server channel.
+     *
+     * @param server The server of the clients.
+     * @param port The port to listen to.
+     * @param backlog The maximum number of connections waiting to be accepted.
+     * @throws IOException If the channel cannot be opened.
+     */
+    NioTransport(AbstractServer server, int port, int backlog) throws IOException {
+        this.server = server;
+        this.selector = Selector.open();
+        try {
+            this.serverChannel = ServerSocketChannel.open();
+            serverChannel.configureBlocking(false);
+            serverChannel.bind(new InetSocketAddress(port), backlog);
+        } catch (IOException e) {
+            selector.close();
+            throw e;
+        }
+        AtomicInteger count = new AtomicInteger();
+        this.handlers = Executors.newFixedThreadPool(HANDLER_THREADS, task -> {
+            Thread thread = new Thread(task, "ocsf-handler-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.loop = new Thread(this, "ocsf-selector");
+    }
+
+    /**
+     * Starts the selector thread and accepts the connections.
+     */
+    void start() {
+        startAccepting();
+        loop.start();
+    }
+
+    /**
+     * @return true if new connections are accepted.
+     */
+    boolean isAccepting() {
+        return running && accepting;
+    }
+
+    /**
+     * Accepts the connections again after {@link #stopAccepting()}.
+     */
+    void startAccepting() {
+        accepting = true;
+        execute(() -> {
+            if (acceptKey == null) {
+                acceptKey = serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+                server.serverStarted();
+            }
+        });
+    }
+
+    /**
+     * Stops accepting new connections; the connected clients are still served.
+     */
+    void stopAccepting() {
+        accepting = false;
+        execute(() -> {
+            if (acceptKey != null) {
+                acceptKey.cancel();
+                acceptKey = null;
+                server.serverStopped();
+            }
+        });
+    }
+
+    /**
+     * Closes every connection and the server channel, then waits for the
+     * selector thread and for the handlers.
+     */
+    void close() {
+        running = false;
+        accepting = false;
+        selector.wakeup();
+        try {
+            loop.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        handlers.shutdown();
+        try {
+            handlers.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs the selector thread. Not to be called.
+     */
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                runTasks();
+                selector.select();
+                runTasks();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else {
+                            Link link = (Link) key.attachment();
+                            if (key.isReadable()) {
+                                read(link);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                link.flush();
+                            }
+                        }
+                    } catch (CancelledKeyException e) {
+                        // the connection was closed by another thread
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException exception) {
+            if (running) {
+                server.listeningException(exception);
+            }
+        } finally {
+            running = false;
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Link link) {
+                    link.close(null);
+                }
+            }
+            try {
+                serverChannel.close();
+                selector.close();
+            } catch (IOException e) {
+            }
+            if (acceptKey != null) {
+                acceptKey = null;
+                server.serverStopped();
+            }
+        }
+    }
+
+    // Runs a task on the selector thread.
+    private void execute(IoTask task) {
+        tasks.add(() -> {
+            try {
+                task.run();
+            } catch (IOException e) {
+                server.listeningException(e);
+            }
+        });
+        selector.wakeup();
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            try {
+                channel.configureBlocking(false);
+                Link link = new Link(channel);
+                ConnectionToClient client = new ConnectionToClient(link, server);
+                link.client = client;
+                link.key = channel.register(selector, SelectionKey.OP_READ, link);
+                server.addConnection(client);
+                link.deliver(CONNECTED);
+            } catch (IOException e) {
+                channel.close();
+            }
+        }
+    }
+
+    private void read(Link link) {
+        try {
+            int count;
+            int total = 0;
+            do {
+                readBuffer.clear();
+                count = link.channel.read(readBuffer);
+                if (count > 0) {
+                    total += count;
+                    readBuffer.flip();
+                    link.append(readBuffer);
+                    link.split();
+                }
+            } while (count > 0 && total < MAX_READ && link.isOpen() && !link.paused.get());
+            if (count < 0) {
+                link.close(new EOFException("connection closed by the client"));
+            }
+        } catch (IOException e) {
+            link.close(e);
+        }
+    }
+
+    // Work that may throw an IOException.
+    private interface IoTask {
+
+        void run() throws IOException;
+    }
+
+    // Mailbox entry telling that the connection is closed.
+    private record Closed(Exception cause) {
+
+    }
+
+    // Mailbox entry holding the bytes of a message: a binary frame, or the
+    // part of the serialization stream holding one message.
+    private record Frame(byte[] data, boolean binary) {
+
+    }
+
+    /**
+     * State of one connection served by the transport.
+     */
+    final class Link {
+
+        private final SocketChannel channel;
+        private ConnectionToClient client;
+        private SelectionKey key;
+
+        // Bytes received and not cut into messages yet, from start to length;
+        // used by the selector thread only.
+        private byte[] pending = new byte[256];
+        private int start;
+        private int length;
+        private JavaStreamSplitter splitter;
+
+        // Serializes the messages to send; guarded by this.
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        private ObjectOutputStream encoder;
+        private int protocol = UNKNOWN;
+        // Messages sent before the protocol is known.
+        private final List<Object> early = new ArrayList<>();
+        private final Outbox outbound = new Outbox();
+        private boolean writing;
+
+        // Reads the Java messages, on the handlers: one message at a time,
+        // from the bytes of one frame after the other.
+        private final FrameInput frames = new FrameInput();
+        private ObjectInputStream decoder;
+
+        private final Queue<Object> mailbox = new ConcurrentLinkedQueue<>();
+        // Bytes of the messages in the mailbox, and whether reading waits
+        // for the handlers to take them.
+        private final AtomicLong inbound = new AtomicLong();
+        private final AtomicBoolean paused = new AtomicBoolean();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Link(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * @return the channel of the connection.
+         */
+        SocketChannel getChannel() {
+            return channel;
+        }
+
+        /**
+         * @return true until the connection is closed.
+         */
+        boolean isOpen() {
+            return !closed.get();
+        }
+
+        /**
+         * @return the messages waiting to be written.
+         */
+        synchronized int getQueuedMessages() {
+            return outbound.size();
+        }
+
+        /**
+         * @return the bytes waiting to be written.
+         */
+        synchronized long getQueuedBytes() {
+            return outbound.bytes();
+        }
+
+        /**
+         * Sends a message: writes it at once if the channel can take it, and
+         * leaves the rest to the selector thread. A {@link Broadcast} is not
+         * serialized again.
+         *
+         * @param message The message.
+         * @throws IOException If the connection is closed or broken.
+         */
+        synchronized void send(Object message) throws IOException {
+            if (closed.get()) {
+                throw new SocketException("socket does not exist");
+            }
+            if (protocol == UNKNOWN) {
+                early.add(message);
+                return;
+            }
+            if (message instanceof Broadcast broadcast) {
+                // the same bytes for every client: the encoder is reset
+                // before its next message anyway
+                write(protocol == BINARY ? broadcast.frame() : broadcast.stream(), message);
+                return;
+            }
+            if (protocol == BINARY) {
+                write(BinaryCodec.encode(message), message);
+                return;
+            }
+            encoder.reset();
+            encoder.writeObject(message);
+            encoder.flush();
+            write(bytes.toByteArray(), message);
+            bytes.reset();
+        }
+
+        // Sets the protocol chosen by the client, on the selector thread, and
+        // sends what waited for it: the stream header or the binary hello
+        // with the version of the server, then the early messages.
+        private synchronized void start(int chosen, int version) throws IOException {
+            if (chosen == JAVA) {
+                encoder = new ObjectOutputStream(bytes);
+                encoder.flush();
+                write(bytes.toByteArray(), null);
+                bytes.reset();
+            } else {
+                write(BinaryCodec.hello(version), null);
+            }
+            protocol = chosen;
+            for (Object message : early) {
+                send(message);
+            }
+            early.clear();
+        }
+
+        // Writes bytes to the client; the array may be shared with other
+        // links (see Broadcast), it is only read. What the channel cannot
+        // take waits in the outbox, and a client with too much waiting is
+        // disconnected.
+        private synchronized void write(byte[] data, Object message) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            try {
+                if (outbound.isEmpty()) {
+                    channel.write(buffer);
+                    if (!buffer.hasRemaining()) {
+                        return;
+                    }
+                }
+                if (!outbound.add(buffer, message)) {
+                    throw new IOException("slow client: " + outbound.bytes() + " bytes waiting");
+                }
+                if (!writing) {
+                    writing = true;
+                    key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+                    selector.wakeup();
+                }
+            } catch (IOException e) {
+                close(e);
+                throw e;
+            } catch (CancelledKeyException e) {
+                throw new SocketException("socket does not exist");
+            }
+        }
+
+        /**
+         * Closes the connection; the server learns it from the handlers.
+         *
+         * @param cause The exception that broke the connection, or null if it
+         * was closed on purpose.
+         */
+        void close(Exception cause) {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            if (key != null) {
+                key.cancel();
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+            }
+            deliver(new Closed(cause));
+            selector.wakeup();
+        }
+
+        // Writes what is left to send, on the selector thread.
+        private synchronized void flush() {
+            try {
+                while (!outbound.isEmpty()) {
+                    ByteBuffer buffer = outbound.peek();
+                    channel.write(buffer);
+                    if (buffer.hasRemaining()) {
+                        return;
+                    }
+                    outbound.remove();
+                }
+                writing = false;
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            } catch (IOException e) {
+                close(e);
+            }
+        }
+
+        private void append(ByteBuffer buffer) {
+            if (start > 0) {
+                // drop what was cut at the previous reads
+                System.arraycopy(pending, start, pending, 0, length - start);
+                length -= start;
+                if (splitter != null) {
+                    splitter.shift(start);
+                }
+                start = 0;
+            }
+            int needed = length + buffer.remaining();
+            if (needed > pending.length) {
+                pending = Arrays.copyOf(pending, Math.max(needed, 2 * pending.length));
+            }
+            buffer.get(pending, length, buffer.remaining());
+            length = needed;
+        }
+
+        // Cuts the complete messages received and sends them to the mailbox.
+        private void split() throws IOException {
+            if (protocol == UNKNOWN && !negotiate()) {
+                return;
+            }
+            while (isOpen()) {
+                int end;
+                byte[] data;
+                if (protocol == BINARY) {
+                    int size = BinaryCodec.frameLength(pending, start, length - start);
+                    if (size < 0 || size > length - start) {
+                        break;
+                    }
+                    end = start + size;
+                } else {
+                    end = splitter.next(pending, start, length);
+                    if (end < 0) {
+                        break;
+                    }
+                }
+                data = Arrays.copyOfRange(pending, start, end);
+                start = end;
+                received(new Frame(data, protocol == BINARY));
+            }
+            if (length - start > MAX_MESSAGE) {
+                throw new StreamCorruptedException("message larger than " + MAX_MESSAGE + " bytes");
+            }
+        }
+
+        // Reads the first bytes of the client; true once the protocol is known.
+        private boolean negotiate() throws IOException {
+            if (length < STREAM_HEADER) {
+                return false;
+            }
+            int head = ((pending[0] & 0xFF) << 24) | ((pending[1] & 0xFF) << 16)
+                    | ((pending[2] & 0xFF) << 8) | (pending[3] & 0xFF);
+            if (head == BinaryCodec.JAVA_STREAM) {
+                start = STREAM_HEADER;
+                splitter = new JavaStreamSplitter(MAX_MESSAGE);
+                start(JAVA, 0);
+                return true;
+            }
+            if (head != BinaryCodec.MAGIC) {
+                throw new StreamCorruptedException("unknown protocol");
+            }
+            if (length < BinaryCodec.HELLO_BYTES) {
+                return false;
+            }
+            int version = BinaryCodec.negotiate(pending[4] & 0xFF);
+            start = BinaryCodec.HELLO_BYTES;
+            if (version == 0) {
+                // refused: the client comes back with Java serialization
+                write(BinaryCodec.hello(0), null);
+                close(null);
+                return false;
+            }
+            start(BINARY, version);
+            return true;
+        }
+
+        // Sends a message to the mailbox, on the selector thread, and stops
+        // reading the client while the mailbox is full.
+        private void received(Frame frame) {
+            long size = inbound.addAndGet(frame.data().length + ENTRY_BYTES);
+            deliver(frame);
+            if (size > INBOUND_BYTES && paused.compareAndSet(false, true)) {
+                key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+                // the handlers may have emptied it meanwhile
+                if (inbound.get() <= INBOUND_BYTES / 2 && paused.compareAndSet(true, false)) {
+                    key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+                }
+            }
+        }
+
+        // Reads the client again once the handlers have taken half of the
+        // mailbox, on a handler thread.
+        private void taken(Frame frame) {
+            long size = inbound.addAndGet(-(frame.data().length + ENTRY_BYTES));
+            if (size <= INBOUND_BYTES / 2 && paused.get() && paused.compareAndSet(true, false)) {
+                execute(() -> {
+                    try {
+                        key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+                    } catch (CancelledKeyException e) {
+                        // closed meanwhile
+                    }
+                });
+            }
+        }
+
+        private void deliver(Object entry) {
+            mailbox.add(entry);
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    handlers.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false); // the transport is closed
+                }
+            }
+        }
+
+        // Handles the messages of the mailbox in order, on a handler thread.
+        private void drain() {
+            do {
+                Object entry;
+                while ((entry = mailbox.poll()) != null) {
+                    handle(entry);
+                }
+                scheduled.set(false);
+            } while (!mailbox.isEmpty() && scheduled.compareAndSet(false, true));
+        }
+
+        private void handle(Object entry) {
+            if (entry == CONNECTED) {
+                server.clientConnected(client);
+            } else if (entry instanceof Closed closedEntry) {
+                if (closedEntry.cause() != null && !client.isReadyToStop()) {
+                    server.clientException(client, closedEntry.cause());
+                }
+                server.clientDisconnected(client);
+            } else if (entry instanceof Frame frame) {
+                try {
+                    if (!closed.get() && !client.isReadyToStop()) {
+                        handle(frame);
+                    }
+                } finally {
+                    taken(frame);
+                }
+            }
+        }
+
+        // Reads a Java message; the stream is the one of the connection, so a
+        // message may refer to the ones before it, as with the thread transport.
+        private Object decode(byte[] data) throws IOException, ClassNotFoundException {
+            if (decoder == null) {
+                frames.add(new byte[]{(byte) (BinaryCodec.JAVA_STREAM >>> 24),
+                    (byte) (BinaryCodec.JAVA_STREAM >>> 16), (byte) (BinaryCodec.JAVA_STREAM >>> 8),
+                    (byte) BinaryCodec.JAVA_STREAM});
+                decoder = new ObjectInputStream(frames);
+            }
+            frames.add(data);
+            Object message = decoder.readObject();
+            if (frames.available() > 0) {
+                throw new StreamCorruptedException("message shorter than its bytes");
+            }
+            return message;
+        }
+
+        // Decodes a message and lets the server handle it.
+        private void handle(Frame frame) {
+            Object message;
+            try {
+                byte[] data = frame.data();
+                message = frame.binary() ? BinaryCodec.decode(data, 0, data.length) : decode(data);
+            } catch (IOException | ClassNotFoundException e) {
+                close(e);
+                return;
+            }
+            try {
+                if (client.handleMessageFromClient(message)) {
+                    server.receiveMessageFromClient(message, client);
+                }
+            } catch (RuntimeException e) {
+                server.clientException(client, e);
+                close(null);
+            }
+        }
+    }
+
+    // The bytes of the frames given to it, one frame after the other; never
+    // blocks, the end of a frame is the end of the stream until the next one.
+    private static final class FrameInput extends InputStream {
+
+        private final Queue<byte[]> queued = new ArrayDeque<>();
+        private byte[] data = new byte[0];
+        private int position;
+
+        void add(byte[] frame) {
+            queued.add(frame);
+        }
+
+        private boolean next() {
+            while (position == data.length) {
+                byte[] frame = queued.poll();
+                if (frame == null) {
+                    return false;
+                }
+                data = frame;
+                position = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public int read() {
+            return next() ? data[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!next()) {
+                return -1;
+            }
+            int count = Math.min(len, data.length - position);
+            System.arraycopy(data, position, b, off, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            int count = data.length - position;
+            for (byte[] frame : queued) {
+                count += frame.length;
+            }
+            return count;
+        }
+    }
+}
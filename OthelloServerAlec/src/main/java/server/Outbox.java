@@ -0,0 +1,185 @@
+package server;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import message.Message;
+import message.Type;
+
+/**
+ * Author: Alec Waumans (2025)
+ * The messages serialized for one client and not written yet, so that the
+ * threads sending them never wait for a slow client.
+ *
+ * <p>Two policies keep a slow client from piling up messages:
+ * <ul>
+ * <li>A complete state supersedes the messages of the same kind still waiting:
+ * a whole list of members the older lists and member deltas, a
+ * {@link message.MessageGameInfo} the older states and game deltas. Turned
+ * off with -Dothello.server.supersede=false.</li>
+ * <li>A client with more than {@link #MAX_BYTES} waiting is disconnected.</li>
+ * </ul>
+ *
+ * <p>Not thread safe: used under the lock of its connection.
+ */
+final class Outbox {
+
+    /** Bytes waiting before the client is disconnected, set with -Dothello.server.outboundBytes. */
+    static final int MAX_BYTES = Math.max(1, Integer.getInteger("othello.server.outboundBytes", 4 << 20));
+
+    /** True unless -Dothello.server.supersede=false. */
+    static final boolean SUPERSEDE = !"false".equalsIgnoreCase(
+            System.getProperty("othello.server.supersede", "true").trim());
+
+    private static final Logger LOGGER = Logger.getLogger(Outbox.class.getName());
+
+    // For all the connections.
+    private static final LongAdder QUEUED = new LongAdder();
+    private static final LongAdder SUPERSEDED = new LongAdder();
+    private static final LongAdder DISCONNECTED = new LongAdder();
+    private static final AtomicLong PEAK_BYTES = new AtomicLong();
+
+    // A message waiting; kind is the stream it belongs to, or null.
+    private record Entry(ByteBuffer buffer, int size, Type kind, boolean complete) {
+
+    }
+
+    private final ArrayDeque<Entry> entries = new ArrayDeque<>();
+    private long bytes;
+    private long peakBytes;
+
+    /**
+     * Queues the bytes of a message, after dropping the ones it supersedes.
+     * A buffer partly written already is never dropped.
+     *
+     * @param buffer The bytes to write; its array may be shared, it is only read.
+     * @param message The message they hold, or null.
+     * @return false if the client has too much waiting: the bytes are not
+     * queued and the client should be disconnected.
+     */
+    boolean add(ByteBuffer buffer, Object message) {
+        if (message instanceof Broadcast broadcast) {
+            message = broadcast.getMessage();
+        }
+        Type type = message instanceof Message m ? m.getType() : null;
+        Type kind = kindOf(type);
+        boolean complete = type == Type.MEMBERS || type == Type.GAMEINFO;
+        if (SUPERSEDE && complete) {
+            supersede(kind);
+        }
+        int size = buffer.remaining();
+        if (!entries.isEmpty() && bytes + size > MAX_BYTES) {
+            DISCONNECTED.increment();
+            LOGGER.log(Level.WARNING, "Slow client disconnected: {0} bytes waiting in {1} messages",
+                    new Object[]{bytes, entries.size()});
+            return false;
+        }
+        entries.add(new Entry(buffer, size, kind, complete));
+        bytes += size;
+        QUEUED.increment();
+        if (bytes > peakBytes) {
+            peakBytes = bytes;
+            PEAK_BYTES.accumulateAndGet(bytes, Math::max);
+        }
+        return true;
+    }
+
+    /**
+     * @return the first bytes waiting, or null if none.
+     */
+    ByteBuffer peek() {
+        Entry first = entries.peek();
+        return first == null ? null : first.buffer();
+    }
+
+    /**
+     * Removes the first bytes waiting, once written.
+     */
+    void remove() {
+        Entry first = entries.poll();
+        if (first != null) {
+            bytes -= first.size();
+        }
+    }
+
+    /**
+     * @return the first bytes waiting, removed, or null if none.
+     */
+    ByteBuffer poll() {
+        ByteBuffer first = peek();
+        remove();
+        return first;
+    }
+
+    /**
+     * @return true if nothing waits.
+     */
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * @return the number of messages waiting.
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of bytes waiting.
+     */
+    long bytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the most bytes that waited at once.
+     */
+    long peakBytes() {
+        return peakBytes;
+    }
+
+    /**
+     * @return the counters of all the connections.
+     */
+    static String statistics() {
+        return "queued=" + QUEUED.sum() + " superseded=" + SUPERSEDED.sum()
+                + " disconnected=" + DISCONNECTED.sum() + " peakBytes=" + PEAK_BYTES.get();
+    }
+
+    /**
+     * Logs the counters of all the connections.
+     */
+    static void logStatistics() {
+        LOGGER.log(Level.INFO, "outbound: {0}", statistics());
+    }
+
+    // Drops the messages of a kind that no byte of was written.
+    private void supersede(Type kind) {
+        Iterator<Entry> it = entries.iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.kind() == kind && entry.buffer().position() == 0) {
+                it.remove();
+                bytes -= entry.size();
+                SUPERSEDED.increment();
+            }
+        }
+    }
+
+    // The stream a type of message belongs to: its complete states and their deltas.
+    private static Type kindOf(Type type) {
+        if (type == null) {
+            return null;
+        }
+        return switch (type) {
+            case MEMBERS, MEMBERSDELTA -> Type.MEMBERS;
+            case GAMEINFO, GAMEDELTA -> Type.GAMEINFO;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,143 @@
+package server;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Author: Alec Waumans (2025)
+ * A connection of the pool of {@link DBManager}, borrowed by one DAO call at
+ * a time.
+ *
+ * <p>The connection keeps the statements it prepared: asking again for the
+ * same SQL returns the statement already prepared, its parameters cleared.
+ * The statements belong to the connection and must not be closed by the
+ * DAOs; their result sets must. Closing the connection gives it back to the
+ * pool.
+ */
+public final class PooledConnection implements AutoCloseable {
+
+    // Statements kept per connection; the DAOs use a handful of queries.
+    private static final int MAX_STATEMENTS = 32;
+
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements
+            = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+            if (size() > MAX_STATEMENTS) {
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+    private boolean borrowed;
+
+    /**
+     * @param connection The JDBC connection, configured by {@link DBManager}.
+     */
+    PooledConnection(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * @return the JDBC connection, for transactions.
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Returns the prepared statement of a query, prepared once per connection.
+     *
+     * @param sql The query.
+     * @return the statement, its parameters cleared.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        return prepare(sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    /**
+     * Returns the prepared statement of a query, prepared once per connection.
+     *
+     * @param sql The query.
+     * @param autoGeneratedKeys {@link Statement#RETURN_GENERATED_KEYS} or
+     * {@link Statement#NO_GENERATED_KEYS}.
+     * @return the statement, its parameters cleared.
+     * @throws SQLException If the statement cannot be prepared.
+     */
+    public PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys + sql;
+        PreparedStatement statement = statements.get(key);
+        if (statement != null && !statement.isClosed()) {
+            statement.clearParameters();
+            return statement;
+        }
+        statement = connection.prepareStatement(sql, autoGeneratedKeys);
+        statements.put(key, statement);
+        return statement;
+    }
+
+    /**
+     * Gives the connection back to the pool. Closing it again has no effect.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (!borrowed) {
+                return;
+            }
+            borrowed = false;
+        }
+        DBManager.release(this, reset());
+    }
+
+    /**
+     * Marks the connection as borrowed.
+     */
+    synchronized void borrow() {
+        borrowed = true;
+    }
+
+    // Ends any transaction left open; false if the connection is broken.
+    private boolean reset() {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Closes the statements and the connection.
+     */
+    void discard() {
+        for (PreparedStatement statement : statements.values()) {
+            closeQuietly(statement);
+        }
+        statements.clear();
+        try {
+            connection.close();
+        } catch (SQLException e) {
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+        }
+    }
+}
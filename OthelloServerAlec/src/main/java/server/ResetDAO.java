@@ -1,10 +1,10 @@
 package server;
 
-import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 
 /**
  *
@@ -14,7 +14,7 @@ public class ResetDAO {
     /**
      * Inserts a new game into the GAME table.
      *
-     * @param Id     The ID of the sequence,
+     * @param Id     The ID of the sequence, or 0 to let the database choose it (Alec),
      * @param player the id of the user,
      * @param timeStart  The starting time of the game, as a String (e.g., "2025-08-10 14:30:00").
      * @return The auto-generated reset ID from the database.
@@ -25,13 +25,21 @@ public class ResetDAO {
         // SQL query for inserting a new game record
         String insert = "INSERT INTO RESET(Id, player, timeStart) VALUES (?, ?, ?)";
 
-        // Use try-with-resources to ensure the connection and statement are automatically closed
-        try (
-            Connection conn = DBManager.getConnection(); // Get a connection from the database manager
-            PreparedStatement stmt = conn.prepareStatement(insert, Statement.RETURN_GENERATED_KEYS) // Allow retrieval of generated keys
-        ) {
+        // Alec : the reset and the counter of the player are saved in one transaction
+        String count = "INSERT INTO RESET_COUNT(player, count) VALUES (?, 1) "
+                + "ON CONFLICT(player) DO UPDATE SET count = count + 1";
+
+        // Alec : the connection is borrowed from the pool and keeps the statement prepared
+        try (PooledConnection conn = DBManager.acquire()) {
+            conn.getConnection().setAutoCommit(false);
+            PreparedStatement stmt = conn.prepare(insert, Statement.RETURN_GENERATED_KEYS); // Allow retrieval of generated keys
             // Set the query parameters
-            stmt.setInt(1, Id);     // First placeholder: user_id
+            // Alec : 0 was inserted as is, so the second reset broke the primary key
+            if (Id > 0) {
+                stmt.setInt(1, Id);     // First placeholder: user_id
+            } else {
+                stmt.setNull(1, Types.INTEGER);
+            }
             stmt.setInt(2, player);
             stmt.setString(3, timeStart); // Second placeholder: timeStart
 
@@ -39,17 +47,28 @@ public class ResetDAO {
             stmt.executeUpdate();
 
             // Retrieve the auto-generated game ID from the database
-            ResultSet rs = stmt.getGeneratedKeys();
-            if (rs.next()) {
-                return rs.getInt(1); // Return the first generated key (game ID)
-            } else {
-                throw new SQLException("Failed to retrieve the generated game ID.");
+            int resetId;
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                if (rs.next()) {
+                    resetId = rs.getInt(1); // Return the first generated key (game ID)
+                } else {
+                    throw new SQLException("Failed to retrieve the generated game ID.");
+                }
             }
+
+            PreparedStatement countStmt = conn.prepare(count);
+            countStmt.setInt(1, player);
+            countStmt.executeUpdate();
+
+            conn.getConnection().commit();
+            conn.getConnection().setAutoCommit(true);
+            return resetId;
         }
     }
     /**
      * Alec 58399
      * Finds a user by their email address or creates a new entry if none exists.
+     * Alec : reads the counter kept by insertReset instead of counting the rows.
      *
      * @param Id du joueur/auther
      * @return Number of the reset already done
@@ -57,17 +76,14 @@ public class ResetDAO {
      */
     public static int findNumbReset(int IdAuthor) throws SQLException {
 
-        // Trouver Le nombre de de reset en comptant combien de reset il y a à son nom nom. 
-        String selectSQL = "SELECT id FROM RESET WHERE player = ?";
-        int count = 0;
-        try (PreparedStatement stmt = DBManager.getConnection().prepareStatement(selectSQL)) {
+        // Alec : le nombre de reset est tenu à jour dans RESET_COUNT, plus besoin de compter les lignes.
+        String selectSQL = "SELECT count FROM RESET_COUNT WHERE player = ?";
+        try (PooledConnection conn = DBManager.acquire()) {
+            PreparedStatement stmt = conn.prepare(selectSQL);
             stmt.setInt(1, IdAuthor);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                count++;
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt("count") : 0;
             }
         }
-
-        return count;
     }
 }
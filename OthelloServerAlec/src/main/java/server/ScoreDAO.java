@@ -1,6 +1,7 @@
 package server;
 
 import java.sql.*;
+import java.util.List;
 
 /**
  * Data Access Object (DAO) for managing score records in the database.
@@ -27,11 +28,9 @@ public class ScoreDAO {
         // SQL query for inserting a new score record
         String insert = "INSERT INTO SCORE(game_id, num, scoreJ, scoreIA, gameState, timeS) VALUES (?, ?, ?, ?, ?, ?)";
 
-        // Use try-with-resources to ensure database resources are closed automatically
-        try (
-            Connection conn = DBManager.getConnection();              // Get a connection from the database manager
-            PreparedStatement stmt = conn.prepareStatement(insert)    // Prepare the SQL statement
-        ) {
+        // Alec : the connection is borrowed from the pool and keeps the statement prepared
+        try (PooledConnection conn = DBManager.acquire()) {
+            PreparedStatement stmt = conn.prepare(insert);    // Prepare the SQL statement once per connection
             // Set query parameters
             stmt.setInt(1, gameId);     // Game ID foreign key
             stmt.setInt(2, num);        // Turn or sequence number
@@ -44,4 +43,79 @@ public class ScoreDAO {
             stmt.executeUpdate();
         }
     }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * Inserts score records into the SCORE table in one transaction, sent to
+     * the database as one batch.
+     *
+     * @param scores The score records, in the order of the turns.
+     * @throws SQLException if there is an error executing the SQL statement;
+     * no record is inserted then.
+     */
+    public static void insertScores(List<Score> scores) throws SQLException {
+        if (scores.isEmpty()) {
+            return;
+        }
+        String insert = "INSERT INTO SCORE(game_id, num, scoreJ, scoreIA, gameState, timeS) VALUES (?, ?, ?, ?, ?, ?)";
+
+        // The pooled connection rolls the transaction back if the batch fails
+        try (PooledConnection conn = DBManager.acquire()) {
+            Connection connection = conn.getConnection();
+            connection.setAutoCommit(false);
+            PreparedStatement stmt = conn.prepare(insert);
+            try {
+                for (Score score : scores) {
+                    stmt.setInt(1, score.gameId);
+                    stmt.setInt(2, score.num);
+                    stmt.setInt(3, score.scoreJ);
+                    stmt.setInt(4, score.scoreIA);
+                    stmt.setString(5, score.gameState);
+                    stmt.setString(6, score.timeS);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            } finally {
+                stmt.clearBatch();
+            }
+            connection.commit();
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * A score record, waiting to be inserted (see {@link BatchWriter}).
+     */
+    public static final class Score {
+
+        private final int gameId;
+        private final int num;
+        private final int scoreJ;
+        private final int scoreIA;
+        private final String gameState;
+        private final String timeS;
+
+        /**
+         * @param gameId     The ID of the game to which this score belongs.
+         * @param num        The turn number of the score record.
+         * @param scoreJ     The score of the human player.
+         * @param scoreIA    The score of the AI player.
+         * @param gameState  The state of the game.
+         * @param timeS      The timestamp of when the score was recorded.
+         */
+        public Score(int gameId, int num, int scoreJ, int scoreIA, String gameState, String timeS) {
+            this.gameId = gameId;
+            this.num = num;
+            this.scoreJ = scoreJ;
+            this.scoreIA = scoreIA;
+            this.gameState = gameState;
+            this.timeS = timeS;
+        }
+
+        @Override
+        public String toString() {
+            return "game " + gameId + " turn " + num;
+        }
+    }
 }
@@ -2,12 +2,15 @@ package server;
 
 import othello.model.State;
 import othello.model.Position;
+import common.GameDelta;
 import common.GameInfo;
 import common.PositionDTO;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import othello.model.GameState;
+import othello.model.StateDelta;
 
 /**
  * Utility class responsible for converting a {@link State} object from the Othello model
@@ -27,6 +30,17 @@ public class StateMapper {
      * @return A {@link GameInfo} object containing the mapped data.
      */
     public static GameInfo toGameInfo(State state) {
+        return toGameInfo(state, 0);
+    }
+
+    /**
+     * Converts a {@link State} object into a numbered {@link GameInfo} DTO.
+     *
+     * @param state    The current game state from the server game model.
+     * @param sequence The number of the update in the game.
+     * @return A {@link GameInfo} object containing the mapped data.
+     */
+    public static GameInfo toGameInfo(State state, int sequence) {
 
         // Determine if the game is finished
         boolean isEndGame = state.getGameState() != GameState.RUNNING;
@@ -39,15 +53,42 @@ public class StateMapper {
             state.getScore(),                              // Current score
             state.getNextColor().name(),                   // "BLACK" or "WHITE"
             
-            // Map the GameState enum from the model to the GameInfo.GameStatus enum for clients
-            switch (state.getGameState()) {
-                case RUNNING -> GameInfo.GameStatus.RUNNING;
-                case ENDGAME -> GameInfo.GameStatus.ENDGAME;
-                case SURRENDER -> GameInfo.GameStatus.SURRENDER;
-            }
+            toStatus(state.getGameState()),
+            sequence
         );
     }
 
+    /**
+     * Converts the changes of a game, as recorded by the model, into a
+     * numbered {@link GameDelta}; only the changed squares are listed.
+     *
+     * @param changes  The changes since the previous update.
+     * @param sequence The number of the update in the game.
+     * @return A {@link GameDelta} turning the previous update into this one.
+     */
+    public static GameDelta toGameDelta(StateDelta changes, int sequence) {
+        boolean isEndGame = changes.getGameState() != GameState.RUNNING;
+        int size = changes.getSize();
+        return new GameDelta(sequence,
+                toDTOList(changes.getBlackTokens(), size, isEndGame),
+                toDTOList(changes.getWhiteTokens(), size, isEndGame),
+                toDTOList(changes.getEmptied(), size, isEndGame),
+                size,
+                changes.getPossibleMove(),
+                changes.getScore(),
+                changes.getNextColor().name(),
+                toStatus(changes.getGameState()));
+    }
+
+    // Map the GameState enum from the model to the GameInfo.GameStatus enum for clients
+    private static GameInfo.GameStatus toStatus(GameState gameState) {
+        return switch (gameState) {
+            case RUNNING -> GameInfo.GameStatus.RUNNING;
+            case ENDGAME -> GameInfo.GameStatus.ENDGAME;
+            case SURRENDER -> GameInfo.GameStatus.SURRENDER;
+        };
+    }
+
     /**
      * Converts a list of {@link Position} objects into a list of {@link PositionDTO} objects.
      *
@@ -60,4 +101,26 @@ public class StateMapper {
                 .map(pos -> new PositionDTO(pos.getX(), pos.getY(), endGame))
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Converts a set of squares of the board ({@code row * size + col}) into a
+     * list of {@link PositionDTO} objects.
+     *
+     * @param squares The squares, one bit each.
+     * @param size    The size of the board.
+     * @param endGame True if the game has ended; affects the DTO's state.
+     * @return A list of {@link PositionDTO} objects for client consumption.
+     */
+    private static List<PositionDTO> toDTOList(long[] squares, int size, boolean endGame) {
+        List<PositionDTO> list = new ArrayList<>();
+        for (int i = 0; i < squares.length; i++) {
+            long word = squares[i];
+            while (word != 0) {
+                int square = (i << 6) + Long.numberOfTrailingZeros(word);
+                list.add(new PositionDTO(square / size, square % size, endGame));
+                word &= word - 1;
+            }
+        }
+        return list;
+    }
 }
@@ -0,0 +1,60 @@
+package server;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Author: Alec Waumans (2025)
+ * The ids of the users known by email, kept in memory in front of the USER
+ * table (see {@link UserDAO}).
+ *
+ * <p>The id of a user never changes, so an entry stays right as long as it is
+ * kept. Lookups take no lock. When the cache is full, the users cached first
+ * are forgotten first; they are read again from the database when they come
+ * back.
+ */
+final class UserCache {
+
+    /** Users kept in memory, set with -Dothello.db.userCache. */
+    static final int CAPACITY = Math.max(1, Integer.getInteger("othello.db.userCache", 10_000));
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final Queue<String> order = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param email The email of a user.
+     * @return the id of the user, or null if not cached.
+     */
+    Integer get(String email) {
+        return ids.get(email);
+    }
+
+    /**
+     * Keeps the id of a user, forgetting the oldest users if the cache is full.
+     *
+     * @param email The email of the user.
+     * @param id The id of the user.
+     */
+    void put(String email, int id) {
+        if (ids.putIfAbsent(email, id) != null) {
+            return;
+        }
+        order.add(email);
+        while (ids.size() > CAPACITY) {
+            String oldest = order.poll();
+            if (oldest == null) {
+                break;
+            }
+            ids.remove(oldest);
+        }
+    }
+
+    /**
+     * @return the number of users cached.
+     */
+    int size() {
+        return ids.size();
+    }
+}
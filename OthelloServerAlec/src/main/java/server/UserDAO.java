@@ -14,8 +14,12 @@ import java.sql.SQLException;
  */
 public class UserDAO {
 
+    // Alec : the users already seen, so that a reconnection does not read the database
+    private static final UserCache CACHE = new UserCache();
+
     /**
      * Finds a user by their email address or creates a new entry if none exists.
+     * Alec : the users found or created are cached, see {@link UserCache}.
      *
      * @param email The user's email address.
      * @return The ID of the existing or newly created user.
@@ -23,28 +27,78 @@ public class UserDAO {
      */
     public static int findOrCreate(String email) throws SQLException {
 
+        // Step 0: The user may be cached (Alec)
+        Integer cached = CACHE.get(email);
+        if (cached != null) {
+            return cached;
+        }
+
         // Step 1: Attempt to find the user in the database
-        String selectSQL = "SELECT id FROM USER WHERE email = ?";
-        try (PreparedStatement stmt = DBManager.getConnection().prepareStatement(selectSQL)) {
-            stmt.setString(1, email);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("id"); // User found → return their ID
-            }
+        Integer found = findId(email);
+        if (found != null) {
+            CACHE.put(email, found);
+            return found; // User found → return their ID
         }
 
         // Step 2: If the user does not exist, generate a new ID
         int newId = DBManager.getNextId("user");
 
         // Step 3: Insert the new user record into the database
-        String insertSQL = "INSERT INTO USER(id, email) VALUES(?, ?)";
-        try (PreparedStatement insertStmt = DBManager.getConnection().prepareStatement(insertSQL)) {
+        // Alec : ignored if the same user was created meanwhile by another connection
+        String insertSQL = "INSERT OR IGNORE INTO USER(id, email) VALUES(?, ?)";
+        int inserted;
+        try (PooledConnection conn = DBManager.acquire()) {
+            PreparedStatement insertStmt = conn.prepare(insertSQL);
             insertStmt.setInt(1, newId);
             insertStmt.setString(2, email);
-            insertStmt.executeUpdate();
+            inserted = insertStmt.executeUpdate();
+        }
+        if (inserted == 0) {
+            found = findId(email);
+            if (found == null) {
+                throw new SQLException("Failed to create user " + email);
+            }
+            newId = found;
         }
 
         // Step 4: Return the newly generated ID
+        CACHE.put(email, newId);
         return newId;
     }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * Loads the most recent users into the cache, up to its capacity, so that
+     * the first reconnections after a start do not read the database either.
+     *
+     * @return the number of users loaded.
+     * @throws SQLException If an error occurs while accessing the database.
+     */
+    public static int warmCache() throws SQLException {
+        String selectSQL = "SELECT id, email FROM USER ORDER BY id DESC LIMIT ?";
+        int count = 0;
+        try (PooledConnection conn = DBManager.acquire()) {
+            PreparedStatement stmt = conn.prepare(selectSQL);
+            stmt.setInt(1, UserCache.CAPACITY);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    CACHE.put(rs.getString("email"), rs.getInt("id"));
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    // Reads the id of a user, or null if unknown.
+    private static Integer findId(String email) throws SQLException {
+        String selectSQL = "SELECT id FROM USER WHERE email = ?";
+        try (PooledConnection conn = DBManager.acquire()) {
+            PreparedStatement stmt = conn.prepare(selectSQL);
+            stmt.setString(1, email);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt("id") : null;
+            }
+        }
+    }
 }
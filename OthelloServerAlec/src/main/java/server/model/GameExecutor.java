@@ -0,0 +1,175 @@
+package server.model;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Author: Alec Waumans (2025)
+ * Runs the work of the games (moves of the players and of the CPU, undo,
+ * redo) off the connection threads.
+ *
+ * <p>Each game has a lane: the tasks of one game run one at a time, in the
+ * order they were submitted, while the tasks of different games run in
+ * parallel on a bounded pool of threads. A connection thread only queues its
+ * work, so a slow CPU move never stalls the other clients.
+ *
+ * <p>A lane has at most one task in the pool queue at a time, so the queue
+ * holds at most one task per busy game. When the pool is full anyway, the
+ * task runs on the thread that submitted it, which slows that client down
+ * instead of dropping its moves. Once the executor is shut down, the tasks
+ * already queued still run, on the threads of the pool, and new tasks are
+ * dropped: no game task ever runs on a connection thread then.
+ *
+ * <p>A lane forgets itself when it has nothing left to run, so the cleanup of
+ * a game is submitted as its last task: a new lane of the same key only starts
+ * once the old one is done, and two lanes of one game never run together.
+ */
+final class GameExecutor {
+
+    /** Threads running the games, set with -Dothello.cpu.threads. */
+    static final int THREADS = Math.max(1, Integer.getInteger("othello.cpu.threads",
+            Runtime.getRuntime().availableProcessors()));
+
+    /** Games waiting for a thread, set with -Dothello.cpu.queue. */
+    static final int QUEUE_CAPACITY = Math.max(1, Integer.getInteger("othello.cpu.queue", 1024));
+
+    private static final Logger LOGGER = Logger.getLogger(GameExecutor.class.getName());
+
+    private final ThreadPoolExecutor pool;
+    private final Map<Integer, Lane> lanes = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * Constructs an executor with {@link #THREADS} threads.
+     */
+    GameExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = task -> {
+            Thread thread = new Thread(task, "othello-game-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.pool = new ThreadPoolExecutor(THREADS, THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY), factory);
+    }
+
+    /**
+     * Queues a task of a game, after the tasks already queued for it.
+     *
+     * @param gameKey The key of the game (the id of its player).
+     * @param task The task to run.
+     */
+    void submit(int gameKey, Runnable task) {
+        if (closed) {
+            LOGGER.log(Level.WARNING, "Executor shut down, task of game {0} dropped", gameKey);
+            return;
+        }
+        // a lane found just as it retired takes no more tasks: try a new one
+        while (!lanes.computeIfAbsent(gameKey, Lane::new).submit(task)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Stops accepting tasks and waits for the queued ones.
+     *
+     * @param timeoutMillis The longest wait, in milliseconds.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    void shutdown(long timeoutMillis) throws InterruptedException {
+        closed = true;
+        pool.shutdown();
+        pool.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.SEVERE, "Game task failed", e);
+        }
+    }
+
+    // Tasks of one game, handed to the pool one at a time.
+    private final class Lane {
+
+        private final int key;
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        private boolean running;
+        // Set, with the lane removed from the map, once it ran out of tasks.
+        private boolean retired;
+
+        Lane(int key) {
+            this.key = key;
+        }
+
+        // Returns false if the lane retired: the task is not queued.
+        boolean submit(Runnable task) {
+            synchronized (this) {
+                if (retired) {
+                    return false;
+                }
+                tasks.add(task);
+                if (running) {
+                    return true;
+                }
+                running = true;
+            }
+            dispatch(false);
+            return true;
+        }
+
+        // Hands the next task to the pool, or runs it here if the pool refuses
+        // it: full, or shut down while this thread of the pool drains the lane.
+        private void dispatch(boolean onPool) {
+            while (true) {
+                Runnable next;
+                synchronized (this) {
+                    next = tasks.poll();
+                    if (next == null) {
+                        running = false;
+                        retired = true;
+                        lanes.remove(key, this);
+                        return;
+                    }
+                }
+                try {
+                    pool.execute(() -> {
+                        runSafely(next);
+                        dispatch(true);
+                    });
+                    return;
+                } catch (RejectedExecutionException e) {
+                    if (pool.isShutdown() && !onPool) {
+                        drop(next);
+                        return;
+                    }
+                    runSafely(next);
+                }
+            }
+        }
+
+        // Drops the tasks of the lane, the executor being shut down.
+        private void drop(Runnable next) {
+            int dropped;
+            synchronized (this) {
+                dropped = 1 + tasks.size();
+                tasks.clear();
+                running = false;
+                retired = true;
+                lanes.remove(key, this);
+            }
+            LOGGER.log(Level.WARNING, "Executor shut down, {0} tasks of game {1} dropped",
+                    new Object[]{dropped, key});
+        }
+    }
+}
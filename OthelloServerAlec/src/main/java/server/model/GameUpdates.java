@@ -0,0 +1,79 @@
+package server.model;
+
+import common.GameInfo;
+import common.User;
+import message.Message;
+import message.MessageGameDelta;
+import message.MessageGameInfo;
+import othello.controller.Controller;
+import othello.model.StateDelta;
+import server.StateMapper;
+
+/**
+ * Author: Alec Waumans (2025)
+ * Numbers the updates of one game and chooses how to send each of them: a
+ * complete {@link GameInfo} or only its changes since the previous update.
+ *
+ * <p>The first update of a game is complete, and so is one update in
+ * {@link #SNAPSHOT_INTERVAL}, so that a client that went wrong catches up
+ * even without asking. A client can also ask for the last state again, see
+ * {@link #snapshot(User, Controller)}. Clients that did not ask for deltas in their
+ * configuration always get complete states.
+ *
+ * <p>A delta is built from the changes the game records (see
+ * {@link Controller#takeChanges()}), not by comparing two complete states.
+ *
+ * <p>Used from the lane of the game only (see {@link GameExecutor}).
+ */
+final class GameUpdates {
+
+    /** Updates between two complete states, set with -Dothello.delta.snapshot. */
+    static final int SNAPSHOT_INTERVAL = Math.max(1, Integer.getInteger("othello.delta.snapshot", 32));
+
+    private final boolean deltas;
+    private int sequence;
+    private int sinceSnapshot;
+
+    /**
+     * @param deltas true if the client applies deltas.
+     */
+    GameUpdates(boolean deltas) {
+        this.deltas = deltas;
+    }
+
+    /**
+     * Numbers the new state of the game and builds its message.
+     *
+     * @param player The player of the game.
+     * @param controller The controller of the game, in its new state.
+     * @return a {@link MessageGameDelta}, or a {@link MessageGameInfo} when a
+     * complete state is due.
+     */
+    Message next(User player, Controller controller) {
+        // taken at every update, so that a delta holds the changes since the
+        // previous update, whatever it was
+        StateDelta changes = controller.takeChanges();
+        sequence++;
+        if (!deltas || sequence == 1 || sinceSnapshot >= SNAPSHOT_INTERVAL) {
+            sinceSnapshot = 0;
+            return new MessageGameInfo(User.ADMIN, player,
+                    StateMapper.toGameInfo(controller.getState(), sequence));
+        }
+        sinceSnapshot++;
+        return new MessageGameDelta(User.ADMIN, player, StateMapper.toGameDelta(changes, sequence));
+    }
+
+    /**
+     * @param player The player of the game.
+     * @param controller The controller of the game, in the state last sent.
+     * @return the last state sent, complete, or null if none was sent.
+     */
+    Message snapshot(User player, Controller controller) {
+        if (sequence == 0) {
+            return null;
+        }
+        sinceSnapshot = 0;
+        return new MessageGameInfo(User.ADMIN, player,
+                StateMapper.toGameInfo(controller.getState(), sequence));
+    }
+}
@@ -0,0 +1,133 @@
+package server.model;
+
+import common.Members;
+import common.MembersDelta;
+import common.User;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import message.MessageMembers;
+import message.MessageMembersDelta;
+
+/**
+ * Author: Alec Waumans (2025)
+ * The connected users, and the changes sent to the clients.
+ *
+ * <p>The clients get the whole list once, when they connect or when they ask
+ * for it, then only the users who joined or left (see {@link MembersDelta}).
+ * The clients that never asked for the list do not know the deltas: they get
+ * the whole list again at each change, as before. The changes are gathered for
+ * {@link #WINDOW_MILLIS} before being sent, so a burst of connections costs one
+ * broadcast, not one per connection.
+ *
+ * <p>The list itself changes at once: a whole list may already hold changes
+ * not sent yet. The delta that brings them applies to it anyway, as applying
+ * a delta twice changes nothing.
+ */
+final class MemberList {
+
+    /** Time the changes are gathered before being sent, set with -Dothello.members.window. */
+    static final long WINDOW_MILLIS = Math.max(0, Long.getLong("othello.members.window", 100));
+
+    private final BiConsumer<MessageMembersDelta, MessageMembers> broadcast;
+    private final ScheduledExecutorService timer;
+
+    private final Members members = new Members();
+    private final Map<Integer, User> joined = new LinkedHashMap<>();
+    private final Set<Integer> left = new LinkedHashSet<>();
+    private int version;
+    private boolean scheduled;
+    private boolean closed;
+
+    /**
+     * @param broadcast Sends the delta to the clients that apply the deltas,
+     * and the whole list to the others.
+     */
+    MemberList(BiConsumer<MessageMembersDelta, MessageMembers> broadcast) {
+        this.broadcast = broadcast;
+        this.timer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "othello-members");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Adds a user, or replaces the user with the same id.
+     *
+     * @param user The user who joined.
+     */
+    synchronized void join(User user) {
+        members.remove(user.getId());
+        members.add(user);
+        joined.put(user.getId(), user);
+        schedule();
+    }
+
+    /**
+     * Removes a user.
+     *
+     * @param id The id of the user who left.
+     */
+    synchronized void leave(int id) {
+        members.remove(id);
+        joined.remove(id);
+        left.add(id);
+        schedule();
+    }
+
+    /**
+     * @return the whole list with its number, for one client.
+     */
+    synchronized MessageMembers snapshot() {
+        return new MessageMembers(new Members(members), version);
+    }
+
+    /**
+     * @return a copy of the list.
+     */
+    synchronized Members copy() {
+        return new Members(members);
+    }
+
+    /**
+     * Stops sending the changes. The users who join or leave afterwards, as
+     * the connections close, still change the list.
+     */
+    void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        timer.shutdownNow();
+    }
+
+    // Under the lock of the list.
+    private void schedule() {
+        if (!scheduled && !closed) {
+            scheduled = true;
+            timer.schedule(this::flush, WINDOW_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Sends the changes gathered, as one delta; runs on the timer only, so the deltas go out in order.
+    private void flush() {
+        MembersDelta delta;
+        MessageMembers list;
+        synchronized (this) {
+            scheduled = false;
+            int[] ids = left.stream().mapToInt(Integer::intValue).toArray();
+            delta = new MembersDelta(version, version + 1, ids, new ArrayList<>(joined.values()));
+            version++;
+            joined.clear();
+            left.clear();
+            list = new MessageMembers(new Members(members), version);
+        }
+        broadcast.accept(new MessageMembersDelta(delta), list);
+    }
+}
@@ -7,7 +7,6 @@ import common.Members;
 import common.PositionDTO;
 import common.User;
 import message.Message;
-import message.MessageMembers;
 import message.MessageProfile;
 import message.Type;
 import java.io.IOException;
@@ -18,16 +17,25 @@ import java.net.SocketException;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import message.MessageGameInfo;
+import message.MessageMembers;
+import message.MessageMembersDelta;
+import message.MessageReplay;
 import message.MessageReset;
 import othello.controller.Controller;
+import othello.model.GameReplay;
 import othello.model.State;
 import server.AbstractServer;
+import server.BatchWriter;
+import server.Broadcast;
+import server.DBManager;
 import server.GameDAO;
+import server.MoveDAO;
 import server.ResetDAO;
 import server.ScoreDAO;
 import server.StateMapper;
@@ -51,11 +59,27 @@ public class Server extends AbstractServer {
 
     private static final int PORT = 12345;
     static final String ID_MAPINFO = "ID";
+    // Alec: set on the connections of the clients that apply the member deltas
+    static final String MEMBERS_DELTA_MAPINFO = "MEMBERSDELTA";
+
+    // Alec: store active Othello controllers per connected user, read by the game threads too
+    private final Map<Integer, Controller> controllers = new ConcurrentHashMap<>();
+
+    // Alec: numbering and deltas of the updates sent for each game
+    private final Map<Integer, GameUpdates> updates = new ConcurrentHashMap<>();
+
+    // Alec: runs the moves of each game in order, off the connection threads
+    private final GameExecutor games = new GameExecutor();
+
+    // Alec: saves the scores and the move logs in batches, behind the moves
+    private final BatchWriter<ScoreDAO.Score> scores = new BatchWriter<>("score", ScoreDAO::insertScores);
+    private final BatchWriter<MoveDAO.Move> moves = new BatchWriter<>("move", MoveDAO::insertMoves);
 
-    // Alec: store active Othello controllers per connected user
-    private final Map<Integer, Controller> controllers = new HashMap<>();
+    // Alec: the connection of each user, by id; the latest session wins
+    private final Map<Integer, ConnectionToClient> sessions = new ConcurrentHashMap<>();
 
-    private final Members members;
+    // Alec: connected users; the clients get the joins and leaves, gathered
+    private final MemberList members;
 
     /**
      * Returns the local machine's LAN IP address.
@@ -89,15 +113,15 @@ public class Server extends AbstractServer {
      */
     public Server() throws IOException {
         super(PORT);
-        members = new Members();
+        members = new MemberList(this::sendMembers);
         this.listen();
     }
 
     /**
-     * @return the list of currently connected users.
+     * @return a copy of the list of currently connected users.
      */
     public Members getMembers() {
-        return members;
+        return members.copy();
     }
 
     /**
@@ -115,6 +139,22 @@ public class Server extends AbstractServer {
         return getNumberOfClients();
     }
 
+    /**
+     * @author : Alec Waumans (2025)
+     * Rebuilds a saved game from its move log, for example to settle a
+     * dispute on a finished game. The clients ask for it with a
+     * {@link MessageReplay}.
+     *
+     * @param gameId The ID of the game.
+     * @param events The number of events to play, to stop at an earlier
+     * position; {@link Integer#MAX_VALUE} for the whole game.
+     * @return the replay of the game, at the position reached.
+     * @throws SQLException if the game has no move log or it cannot be read.
+     */
+    public GameReplay replayGame(int gameId, int events) throws SQLException {
+        return MoveDAO.replay(gameId, events);
+    }
+
     /**
      * Stops the server and closes all client connections.
      *
@@ -123,6 +163,17 @@ public class Server extends AbstractServer {
     public void quit() throws IOException {
         this.stopListening();
         this.close();
+        // Alec: let the CPU moves already queued finish before leaving
+        try {
+            games.shutdown(5_000);
+            // Alec: then write the scores still queued
+            scores.close(5_000);
+            moves.close(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        members.close();
+        DBManager.shutdown();
     }
 
     /**
@@ -157,31 +208,31 @@ public class Server extends AbstractServer {
                 }
                 //End Alec 
 
+                // Alec: attach ID to connection; the index gives the older connection
+                // using the same user ID, if any
+                client.setInfo(ID_MAPINFO, memberId);
+                ConnectionToClient other = sessions.put(memberId, client);
+
                 // Alec: Automatically close any older connection using the same user ID (session deduplication)
-                for (Thread t : getClientConnections()) {
-                    ConnectionToClient other = (ConnectionToClient) t;
-                    Object id = other.getInfo(ID_MAPINFO);
-                    if (id instanceof Integer oldId && oldId == memberId && other != client) {
-                        System.out.println("Old session detected for ID " + memberId + ", attempting to close...");
-
-                        if (other.isConnected()) {
-                            try {
-                                other.close();
-                                System.out.println("Old session closed for ID " + memberId);
-                            } catch (IOException ex) {
-                                System.err.println("Error closing old session for ID: " + memberId);
-                            }
-                        } else {
-                            System.out.println("Session already closed for ID " + memberId);
+                if (other != null && other != client) {
+                    System.out.println("Old session detected for ID " + memberId + ", attempting to close...");
+
+                    if (other.isConnected()) {
+                        try {
+                            other.close();
+                            System.out.println("Old session closed for ID " + memberId);
+                        } catch (IOException ex) {
+                            System.err.println("Error closing old session for ID: " + memberId);
                         }
+                    } else {
+                        System.out.println("Session already closed for ID " + memberId);
                     }
                 }
                 // End Alec
 
-                // Alec: attach ID to connection + add to members
-                client.setInfo(ID_MAPINFO, memberId);
+                // Alec: add to members
                 User user = new User(memberId, author.getName(), client.getInetAddress());
-                members.add(user);
+                members.join(user);
                 //End Alec
 
                 // Alec: acknowledge profile to client
@@ -211,9 +262,13 @@ public class Server extends AbstractServer {
                 Controller ctrl = new Controller();
                 ctrl.initialize(config.getBoardSize());
 
-                // Alec : Configure CPU strategy if needed
+                // Alec : Configure CPU strategy if needed, with the threads asked by the game if any
                 if (config.isCpuMode()) {
-                    ctrl.setStrategy(config.isSmartCPU());
+                    if (config.getCpuThreads() > 0) {
+                        ctrl.setStrategy(config.isSmartCPU(), config.getCpuThreads());
+                    } else {
+                        ctrl.setStrategy(config.isSmartCPU());
+                    }
                 }
 
                 // Alec :  Save game record in the database
@@ -221,18 +276,30 @@ public class Server extends AbstractServer {
                 String timeStart = LocalDateTime.now().toString();
                 int gameId = -1;
                 try {
-                    gameId = GameDAO.insertGame(userId, timeStart);
+                    gameId = GameDAO.insertGame(userId, timeStart, config.getBoardSize());
                 } catch (SQLException e) {
                     System.err.println("Error persisting Game:");
                     e.printStackTrace();
                 }
                 ctrl.setGameId(gameId);
 
-                // Alec : Store controller in map
-                controllers.put(userId, ctrl);
+                // Alec : log every event of the game, to replay it later (see replayGame)
+                if (gameId > 0) {
+                    int loggedGame = gameId;
+                    AtomicInteger num = new AtomicInteger();
+                    ctrl.setMoveLog(event -> moves.submit(
+                            new MoveDAO.Move(loggedGame, num.incrementAndGet(), event)));
+                }
 
-                // Alec : Send initial game state to the client
-                sendGameInfo(message.getAuthor(), ctrl);
+                // Alec : Store controller in map and send the initial game state,
+                // after the moves of the previous game still queued
+                User author = message.getAuthor();
+                GameUpdates gameUpdates = new GameUpdates(config.isDeltaUpdates());
+                games.submit(userId, () -> {
+                    controllers.put(userId, ctrl);
+                    updates.put(userId, gameUpdates);
+                    sendGameInfo(author, ctrl);
+                });
                 // End Alec
             }
 
@@ -245,52 +312,71 @@ public class Server extends AbstractServer {
                 System.out.println("isEndGame: " + pos.getEndGame());
                 System.out.println("----------------------------------");
 
-                Controller ctrl = controllers.get(message.getAuthor().getId());
-                if (ctrl == null) {
-                    return;
-                }
-
-                // Alec : ompute move and send updated state
-                ctrl.compute(pos.getCol(), pos.getRow(), pos.getEndGame());
-                sendGameInfo(message.getAuthor(), ctrl);
-                ctrl.setNumCoup(ctrl.getNumCoup() + 1);
-
-                // Alec : Persist score
-                try {
-                    int gameId = ctrl.getGameId();
-                    int num = ctrl.getNumCoup();
-                    int[] score = ctrl.getState().getScore();
-                    int scoreJ = score[0];
-                    int scoreIA = score[1];
-                    String gameState = ctrl.getState().getGameState().toString();
-                    String timeS = LocalDateTime.now().toString();
-
-                    ScoreDAO.insertScore(gameId, num, scoreJ, scoreIA, gameState, timeS);
-                    System.out.println("Score saved: Turn " + num);
-                } catch (Exception e) {
-                    System.err.println("Error saving score:");
-                    e.printStackTrace();
-                }
+                // Alec : play the move and send it at once, then let the CPU answer
+                // on the game threads; the score is saved once per turn, as before
+                User author = message.getAuthor();
+                int userId = author.getId();
+                games.submit(userId, () -> {
+                    Controller ctrl = controllers.get(userId);
+                    if (ctrl == null) {
+                        return;
+                    }
+                    ctrl.play(pos.getCol(), pos.getRow(), pos.getEndGame());
+                    sendGameInfo(author, ctrl);
+                    if (!ctrl.isCpuTurn()) {
+                        saveScore(ctrl);
+                    }
+                });
+                games.submit(userId, () -> {
+                    Controller ctrl = controllers.get(userId);
+                    if (ctrl == null || !ctrl.isCpuTurn()) {
+                        return;
+                    }
+                    ctrl.playCpu();
+                    sendGameInfo(author, ctrl);
+                    saveScore(ctrl);
+                });
                 // End Alec
             }
 
             case UNDO -> {
                 // Alec: undo last move via controller
-                Controller ctrl = controllers.get(message.getAuthor().getId());
-                if (ctrl != null) {
-                    ctrl.undo();
-                    sendGameInfo(message.getAuthor(), ctrl);
-                }
+                User author = message.getAuthor();
+                games.submit(author.getId(), () -> {
+                    Controller ctrl = controllers.get(author.getId());
+                    if (ctrl != null) {
+                        ctrl.undo();
+                        sendGameInfo(author, ctrl);
+                    }
+                });
                 // End Alec
             }
 
             case REDO -> {
                 // Alec: redo move via controller
-                Controller ctrl = controllers.get(message.getAuthor().getId());
-                if (ctrl != null) {
-                    ctrl.redo();
-                    sendGameInfo(message.getAuthor(), ctrl);
-                }
+                User author = message.getAuthor();
+                games.submit(author.getId(), () -> {
+                    Controller ctrl = controllers.get(author.getId());
+                    if (ctrl != null) {
+                        ctrl.redo();
+                        sendGameInfo(author, ctrl);
+                    }
+                });
+                // End Alec
+            }
+
+            case RESYNC -> {
+                // Alec: the client missed an update, send it the complete state again
+                User author = message.getAuthor();
+                games.submit(author.getId(), () -> {
+                    GameUpdates gameUpdates = updates.get(author.getId());
+                    Controller ctrl = controllers.get(author.getId());
+                    Message snapshot = gameUpdates == null || ctrl == null
+                            ? null : gameUpdates.snapshot(author, ctrl);
+                    if (snapshot != null) {
+                        sendToClient(snapshot, author.getId());
+                    }
+                });
                 // End Alec
             }
 
@@ -305,10 +391,30 @@ public class Server extends AbstractServer {
             }
 
             case MEMBERS -> {
-                // Alec : I not have implement this part because it was not 
-                // asked on the project but i keep if we must to improve the project. 
+                // Alec : the client missed a change of the members, send it the whole list;
+                // a client that asks for the list applies the deltas, it gets them from now on
+                client.setInfo(MEMBERS_DELTA_MAPINFO, Boolean.TRUE);
+                try {
+                    client.sendToClient(members.snapshot());
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
             }
             
+            case REPLAY -> {
+                // Alec : a saved game played again from its move log, sent as a game state
+                MessageReplay request = (MessageReplay) message;
+                try {
+                    GameReplay replay = replayGame(request.getGameId(), request.getEvents());
+                    client.sendToClient(new MessageGameInfo(User.ADMIN, request.getAuthor(),
+                            StateMapper.toGameInfo(replay.getState())));
+                } catch (SQLException e) {
+                    System.err.println("Error replaying game " + request.getGameId() + ": " + e.getMessage());
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+
             //Alec : J'ai rajouter tout ca pour la gestion du reset dans la database.
             case RESET -> {
                 Controller ctrl = controllers.get(message.getAuthor().getId());
@@ -345,19 +451,24 @@ public class Server extends AbstractServer {
     /**
      * @author : Alec Waumans (2025) & others authors
      * 
-     * Alec : Does not create incremental IDs. Broadcasts members list on connect 
-     * (same idea), but profile/ID are set in PROFILE flow.
+     * Alec : Does not create incremental IDs. Sends the members list on connect
+     * to the new client only: the others get the user when it joins, in the
+     * PROFILE flow, as a change of the list (see {@link MemberList}).
      * 
      * Called when a client successfully connects. Sends the current member list
-     * to all clients.
+     * to the client.
      *
      * @param client the newly connected client.
      */
     @Override
     protected void clientConnected(ConnectionToClient client) {
-        // Alec: keep parent hook; then broadcast members 
+        // Alec: keep parent hook; then send the members
         super.clientConnected(client);
-        sendToAllClients(new MessageMembers(members));
+        try {
+            client.sendToClient(members.snapshot());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
         setChanged();
         // End Alec
     }
@@ -372,17 +483,23 @@ public class Server extends AbstractServer {
      * @param client the disconnected client.
      */
     @Override
-    protected synchronized void clientDisconnected(ConnectionToClient client) {
+    protected void clientDisconnected(ConnectionToClient client) {
         // Alec: cleanup state on disconnect (members + controllers), then notify/broadcast (ChatServer left empty)
+        // Alec: the state of the user belongs to its latest session, not to a replaced one
         Object idObj = client.getInfo(ID_MAPINFO);
-        if (idObj instanceof Integer memberId) {
-            members.remove(memberId);
-            controllers.remove(memberId);
+        if (idObj instanceof Integer memberId && !sessions.remove(memberId, client)) {
+            System.out.println("Replaced session of ID " + memberId + " disconnected");
+        } else if (idObj instanceof Integer memberId) {
+            members.leave(memberId);
+            // Alec: on the lane of the game, after its queued moves
+            games.submit(memberId, () -> {
+                controllers.remove(memberId);
+                updates.remove(memberId);
+            });
         } else {
             System.err.println("Could not retrieve disconnected client ID.");
         }
 
-        sendToAllClients(new MessageMembers(members));
         setChanged();
         notifyObservers();
         removeConnection(client);
@@ -394,7 +511,7 @@ public class Server extends AbstractServer {
      * Handles exceptions thrown by a connected client.
      */
     @Override
-    protected synchronized void clientException(ConnectionToClient client, Throwable exception) {
+    protected void clientException(ConnectionToClient client, Throwable exception) {
         super.clientException(client, exception);
         try {
             if (client.isConnected()) {
@@ -416,19 +533,16 @@ public class Server extends AbstractServer {
      * @author : Alec Waumans (2025) & others authors
      * Full implementation (ChatServer’s version is empty):
      * routes a message to a specific connected client by stored ID.
+     * Alec : the connection is found in the index of the sessions, instead of
+     * looking at every connection.
      */
     void sendToClient(Message message, int clientId) {
-        // Alec: iterate known connections, match by ID_MAPINFO, then send
-        for (Thread t : getClientConnections()) {
-            ConnectionToClient conn = (ConnectionToClient) t;
-            Object id = conn.getInfo(ID_MAPINFO);
-            if (id instanceof Integer && ((Integer) id) == clientId) {
-                try {
-                    conn.sendToClient(message);
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-                break;
+        ConnectionToClient conn = sessions.get(clientId);
+        if (conn != null) {
+            try {
+                conn.sendToClient(message);
+            } catch (IOException e) {
+                e.printStackTrace();
             }
         }
         // End Alec
@@ -437,14 +551,66 @@ public class Server extends AbstractServer {
     /**
      * @author : Alec Waumans (2025)
      * Alec : this function is totally add from me. 
-     * Sends the current game state to a specific player.
+     * Sends the current game state to a specific player: only its changes
+     * when the client applies deltas (see {@link GameUpdates}).
      */
     private void sendGameInfo(User player, Controller controller) {
-        State state = controller.getState(); // Internal game model
-        GameInfo info = StateMapper.toGameInfo(state); // Convert to DTO
-        MessageGameInfo msg = new MessageGameInfo(User.ADMIN, player, info);
+        GameUpdates gameUpdates = updates.get(player.getId());
+        Message msg;
+        if (gameUpdates != null) {
+            msg = gameUpdates.next(player, controller);
+        } else {
+            State state = controller.getState(); // Internal game model
+            GameInfo info = StateMapper.toGameInfo(state); // Convert to DTO
+            msg = new MessageGameInfo(User.ADMIN, player, info);
+        }
         sendToClient(msg, player.getId());
     }
+    /**
+     * @author : Alec Waumans (2025)
+     * Sends the changes of the members to the clients that apply them, and
+     * the whole list to the others. Each message is serialized once.
+     *
+     * @param delta the users who joined or left.
+     * @param list the whole list, after the changes.
+     */
+    private void sendMembers(MessageMembersDelta delta, MessageMembers list) {
+        Broadcast deltas = new Broadcast(delta);
+        Broadcast lists = new Broadcast(list);
+        for (Thread thread : getClientConnections()) {
+            ConnectionToClient client = (ConnectionToClient) thread;
+            try {
+                client.sendToClient(client.getInfo(MEMBERS_DELTA_MAPINFO) != null ? deltas : lists);
+            } catch (IOException e) {
+                // Alec : as for sendToAllClients, a client that fails does not stop the others
+            }
+        }
+    }
+
+    /**
+     * @author : Alec Waumans (2025)
+     * Counts one more turn in the game and saves its score.
+     * Alec : the score is only queued, the {@link BatchWriter} saves it.
+     */
+    private void saveScore(Controller ctrl) {
+        ctrl.setNumCoup(ctrl.getNumCoup() + 1);
+        try {
+            int gameId = ctrl.getGameId();
+            int num = ctrl.getNumCoup();
+            int[] score = ctrl.getState().getScore();
+            int scoreJ = score[0];
+            int scoreIA = score[1];
+            String gameState = ctrl.getState().getGameState().toString();
+            String timeS = LocalDateTime.now().toString();
+
+            scores.submit(new ScoreDAO.Score(gameId, num, scoreJ, scoreIA, gameState, timeS));
+            System.out.println("Score queued: Turn " + num);
+        } catch (Exception e) {
+            System.err.println("Error saving score:");
+            e.printStackTrace();
+        }
+    }
+
     private void sendResetCount(User player, int count){
         //pas le temps mais j'aurais rajouter un object Reset. 
         MessageReset msg = new MessageReset(player);
@@ -1,11 +1,13 @@
 PRAGMA foreign_keys = OFF;
 BEGIN TRANSACTION;
 
+DROP TABLE IF EXISTS MOVE;
 DROP TABLE IF EXISTS SCORE;
 DROP TABLE IF EXISTS GAME;
 DROP TABLE IF EXISTS USER;
 DROP TABLE IF EXISTS SEQUENCE;
 DROP TABLE IF EXISTS RESET;
+DROP TABLE IF EXISTS RESET_COUNT;
 
 CREATE TABLE SEQUENCE (
     name  TEXT PRIMARY KEY,
@@ -21,6 +23,7 @@ CREATE TABLE GAME (
     id        INTEGER PRIMARY KEY AUTOINCREMENT,
     user_id   INTEGER NOT NULL,
     timeStart TEXT    NOT NULL,
+    size      INTEGER,
     FOREIGN KEY(user_id) REFERENCES USER(id)
 );
 
@@ -34,11 +37,22 @@ CREATE TABLE SCORE (
     PRIMARY KEY(game_id, num),
     FOREIGN KEY(game_id) REFERENCES GAME(id)
 );
+CREATE TABLE MOVE (
+    game_id INTEGER NOT NULL,
+    num     INTEGER NOT NULL,
+    event   INTEGER NOT NULL,
+    PRIMARY KEY(game_id, num),
+    FOREIGN KEY(game_id) REFERENCES GAME(id)
+) WITHOUT ROWID;
 CREATE TABLE RESET (
     id        INTEGER PRIMARY KEY AUTOINCREMENT,
     player INTEGER,
     timeStart TEXT    NOT NULL
 );
+CREATE TABLE RESET_COUNT (
+    player INTEGER PRIMARY KEY,
+    count  INTEGER NOT NULL
+);
 
 INSERT INTO USER(id, email) VALUES (1, 'demo1@esi.be');
 INSERT INTO USER(id, email) VALUES (2, 'demo2@esi.be');